@@ -6,31 +6,84 @@ import org.openqa.selenium.Alert;
 import org.openqa.selenium.NoAlertPresentException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.module.BrowsingContextInspector;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import utilities.config.PropertyFileReader;
 
 import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class AlertHelper {
     private static final Logger logger = LogManager.getLogger(AlertHelper.class);  // Initialize the logger
+    // Probe counts and durations, indexed [absent, present]
+    private static final AtomicLong[] probes = {new AtomicLong(), new AtomicLong()};
+    private static final AtomicLong[] probeNanos = {new AtomicLong(), new AtomicLong()};
+    private static final AtomicLong eventProbes = new AtomicLong();
 
     private final WebDriver driver;
     private final WebDriverWait wait;
-    private static final PropertyFileReader config = new PropertyFileReader();
+    private final Duration grace;
+    // Browsing contexts (window handles) with an open prompt, tracked from BiDi events when alertEvents=true
+    private final Set<String> openPrompts = ConcurrentHashMap.newKeySet();
+    private BrowsingContextInspector promptEvents;
 
     /**
-     * Constructor to initialize WebDriver and WebDriverWait.
+     * Constructor to initialize WebDriver and WebDriverWait. Prefer {@link HelperContext#alert()}, whose helper stops
+     * following prompt events when the session ends.
      *
      * @param driver the WebDriver instance
      */
     public AlertHelper(WebDriver driver) {
-        this.driver = driver;
-        int waitDuration = config.getDefaultWaitDuration();
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(waitDuration));
+        this(HelperContext.of(driver));
+    }
+
+    /**
+     * Constructor reusing the wait owned by the session's HelperContext.
+     *
+     * @param context the shared HelperContext of the driver session
+     */
+    public AlertHelper(HelperContext context) {
+        this.driver = context.getDriver();
+        this.wait = context.getWait();
+        this.grace = Duration.ofMillis(context.config().getIntPropertyOrDefault("alertGraceMs", 0));
+        if (context.config().getBooleanPropertyOrDefault("alertEvents", false)) {
+            subscribeToPrompts();
+        }
         logger.info("AlertHelper initialized with driver: {}", driver);
     }
 
+    /**
+     * Follows prompts opening and closing through WebDriver BiDi, so presence checks need no command while no prompt is
+     * open anywhere. A prompt that was already open before the subscription sent no event, so one command probe at
+     * subscription time records it; from then on the events are trusted. Falls back to command probes when the session
+     * has no BiDi connection.
+     */
+    private void subscribeToPrompts() {
+        if (!(driver instanceof HasBiDi) || ((HasBiDi) driver).maybeGetBiDi().isEmpty()) {
+            logger.warn("alertEvents is on but the session has no BiDi connection; probing alerts with commands.");
+            return;
+        }
+        try {
+            promptEvents = new BrowsingContextInspector(driver);
+            promptEvents.onUserPromptOpened(prompt -> {
+                openPrompts.add(prompt.getBrowsingContextId());
+                logger.info("{} prompt opened: '{}'", prompt.getType(), prompt.getMessage());
+            });
+            promptEvents.onUserPromptClosed(prompt -> openPrompts.remove(prompt.getBrowsingContextId()));
+            if (commandProbe()) {
+                openPrompts.add(driver.getWindowHandle());
+            }
+        } catch (WebDriverException e) {
+            close();
+            promptEvents = null;
+            logger.warn("Could not subscribe to prompt events ({}); probing alerts with commands.", e.getMessage());
+        }
+    }
+
     /**
      * Waits for an alert to be present and returns it.
      *
@@ -49,18 +102,93 @@ public class AlertHelper {
     }
 
     /**
-     * Checks if an alert is present.
+     * Checks if an alert is present, right away and then for up to {@code alertGraceMs} (0 by default).
      *
      * @return true if an alert is present, false otherwise
      */
     public boolean isAlertPresent() {
+        return isAlertPresent(grace);
+    }
+
+    /**
+     * Checks if an alert is present, right away and then for up to the given grace period.
+     *
+     * @param grace how long to keep checking after a first negative probe; zero for a single instant probe
+     * @return true if an alert is present, false otherwise
+     */
+    public boolean isAlertPresent(Duration grace) {
+        logger.debug("Checking if alert is present...");
+        long start = System.nanoTime();
+        boolean present = probe();
+        if (!present && !grace.isZero()) {
+            try {
+                new WebDriverWait(driver, grace, Duration.ofMillis(promptEvents != null ? 10 : 50)).until(d -> probe());
+                present = true;
+            } catch (TimeoutException e) {
+                // Still no alert after the grace period
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        int index = present ? 1 : 0;
+        probes[index].incrementAndGet();
+        probeNanos[index].addAndGet(elapsed);
+        logger.debug("{} in {} ms.", present ? "Alert is present" : "No alert was present", elapsed / 1_000_000.0);
+        return present;
+    }
+
+    /**
+     * Logs how many alert probes found an alert or not, and how long each case took on average.
+     */
+    public static void logStatistics() {
+        long present = probes[1].get();
+        long absent = probes[0].get();
+        if (present + absent == 0) {
+            return;
+        }
+        logger.info("Alert probes: {} present (avg {} ms), {} absent (avg {} ms); {} answered from prompt events",
+                present, present == 0 ? 0 : String.format("%.1f", probeNanos[1].get() / 1_000_000.0 / present),
+                absent, absent == 0 ? 0 : String.format("%.1f", probeNanos[0].get() / 1_000_000.0 / absent), eventProbes.get());
+    }
+
+    /**
+     * Stops following prompt events. Called by HelperContext when the session ends.
+     */
+    void close() {
+        if (promptEvents != null) {
+            try {
+                promptEvents.close();
+            } catch (RuntimeException e) {
+                // The session is usually gone already; its BiDi connection goes with it
+                logger.debug("Could not unsubscribe from prompt events: {}", e.getMessage());
+            }
+            promptEvents = null;
+        }
+        openPrompts.clear();
+    }
+
+    private boolean probe() {
+        if (promptEvents != null) {
+            eventProbes.incrementAndGet();
+            // Only a prompt open somewhere needs a command, to tell whether it belongs to the current window
+            return !openPrompts.isEmpty() && openPrompts.contains(driver.getWindowHandle());
+        }
+        return commandProbe();
+    }
+
+    /**
+     * Forgets the prompt of the current window once it has been handled, without waiting for the closed event.
+     */
+    private void promptHandled() {
+        if (promptEvents != null) {
+            openPrompts.remove(driver.getWindowHandle());
+        }
+    }
+
+    private boolean commandProbe() {
         try {
-            logger.debug("Checking if alert is present...");
-            wait.until(ExpectedConditions.alertIsPresent());
-            logger.debug("Alert is present.");
+            driver.switchTo().alert();
             return true;
-        } catch (TimeoutException e) {
-            logger.debug("No alert was present.");
+        } catch (NoAlertPresentException e) {
             return false;
         }
     }
@@ -82,6 +210,7 @@ public class AlertHelper {
     public void acceptAlert() {
         logger.info("Accepting alert.");
         waitForAlert().accept();
+        promptHandled();
         logger.info("Alert accepted.");
     }
 
@@ -91,6 +220,7 @@ public class AlertHelper {
     public void dismissAlert() {
         logger.info("Dismissing alert.");
         waitForAlert().dismiss();
+        promptHandled();
         logger.info("Alert dismissed.");
     }
 
@@ -104,6 +234,7 @@ public class AlertHelper {
         Alert alert = waitForAlert();
         alert.sendKeys(keysToSend);
         alert.accept();
+        promptHandled();
         logger.info("Text sent and alert accepted.");
     }
 
@@ -124,6 +255,7 @@ public class AlertHelper {
             alert.dismiss();
             logger.info("Alert dismissed.");
         }
+        promptHandled();
     }
 
     /**
@@ -144,10 +276,18 @@ public class AlertHelper {
      * @return true if the alert was accepted, false if no alert was present
      */
     public boolean acceptIfAlertPresent() {
-        if (isAlertPresent()) {
-            acceptAlert();
+        if (!isAlertPresent()) {
+            return false;
+        }
+        try {
+            // The alert is already known to be open, so accept it directly rather than waiting for it again
+            driver.switchTo().alert().accept();
+            promptHandled();
+            logger.info("Alert accepted.");
             return true;
+        } catch (NoAlertPresentException e) {
+            logger.debug("Alert closed before it could be accepted.");
+            return false;
         }
-        return false;
     }
 }
\ No newline at end of file
@@ -9,15 +9,14 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
-import utilities.config.PropertyFileReader;
-
-import java.time.Duration;
+import utilities.jfr.AssertionEvent;
+import utilities.tracing.Span;
+import utilities.tracing.Tracer;
 
 public class AssertionHelper {
     private static final Logger logger = LogManager.getLogger(AssertionHelper.class);
     private final WebDriver driver;
     private final WebDriverWait wait;
-    private static final PropertyFileReader config = new PropertyFileReader();
 
     /**
      * Constructor to initialize the AssertionHelper with WebDriver.
@@ -25,10 +24,17 @@ public class AssertionHelper {
      * @param driver the WebDriver instance
      */
     public AssertionHelper(WebDriver driver) {
-        this.driver = driver;
-        int waitDuration = config.getDefaultWaitDuration();
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(waitDuration));
+        this(HelperContext.of(driver));
+    }
 
+    /**
+     * Constructor reusing the wait owned by the session's HelperContext.
+     *
+     * @param context the shared HelperContext of the driver session
+     */
+    public AssertionHelper(HelperContext context) {
+        this.driver = context.getDriver();
+        this.wait = context.getWait();
     }
 
     /**
@@ -43,8 +49,10 @@ public class AssertionHelper {
         try {
             Assert.assertEquals(actual, expected, "Assertion Failed: " + logMessage);
             logger.info("Assertion Passed: {} - Expected: '{}', Actual: '{}'", logMessage, expected, actual);
+            recordAssertion("assertEquals", true, logMessage);
         } catch (AssertionError e) {
             logger.error("Assertion Failed: {} - Expected: '{}', Actual: '{}'", logMessage, expected, actual, e);
+            recordAssertion("assertEquals", false, logMessage);
             throw e;
         }
     }
@@ -61,8 +69,10 @@ public class AssertionHelper {
         try {
             Assert.assertEquals(actual, expected, "Assertion Failed: " + logMessage);
             logger.info("Assertion Passed: {} - Expected: '{}', Actual: '{}'", logMessage, expected, actual);
+            recordAssertion("assertEquals", true, logMessage);
         } catch (AssertionError e) {
             logger.error("Assertion Failed: {} - Expected: '{}', Actual: '{}'", logMessage, expected, actual, e);
+            recordAssertion("assertEquals", false, logMessage);
             throw e;
         }
     }
@@ -78,8 +88,10 @@ public class AssertionHelper {
         try {
             Assert.assertTrue(condition, "Assertion Failed: " + logMessage);
             logger.info("Assertion Passed: {} - Condition evaluated to true.", logMessage);
+            recordAssertion("assertTrue", true, logMessage);
         } catch (AssertionError e) {
             logger.error("Assertion Failed: {} - Condition evaluated to false.", logMessage, e);
+            recordAssertion("assertTrue", false, logMessage);
             throw e;
         }
     }
@@ -90,8 +102,10 @@ public class AssertionHelper {
      * @param locator the By locator or WebElement to check
      */
     public void assertElementDisplayed(Object locator) {
-        WebElement element = getElement(locator);
-        assertElementCondition(element.isDisplayed(), "Element is displayed: " + element);
+        try (Span ignored = Tracer.start("AssertionHelper.assertElementDisplayed", "helper")) {
+            WebElement element = getElement(locator);
+            assertElementCondition(element.isDisplayed(), "Element is displayed: " + element);
+        }
     }
 
     /**
@@ -101,9 +115,11 @@ public class AssertionHelper {
      * @param text    the expected text value
      */
     public void assertElementText(Object locator, String text) {
-        WebElement element = getElement(locator);
-        String actualText = getElementText(element);
-        assertEquals(actualText, text, "Element text assertion");
+        try (Span ignored = Tracer.start("AssertionHelper.assertElementText", "helper")) {
+            WebElement element = getElement(locator);
+            String actualText = getElementText(element);
+            assertEquals(actualText, text, "Element text assertion");
+        }
     }
 
     /**
@@ -113,15 +129,19 @@ public class AssertionHelper {
      * @param text    the expected text value
      */
     public void assertElementContainsText(Object locator, String text) {
-        WebElement element = getElement(locator);
-        String actualText = getElementText(element);
-        try {
-            Assert.assertTrue(actualText.contains(text),
-                    String.format("Assertion Failed: Text does not contain the expected value. Expected: '%s', Found: '%s'", text, actualText));
-            logger.info("Assertion Passed: Element text contains expected value: '{}'", text);
-        } catch (AssertionError e) {
-            logger.error("Assertion Failed: Element text does not contain expected value. Expected: '{}', Found: '{}'.", text, actualText, e);
-            throw e;
+        try (Span ignored = Tracer.start("AssertionHelper.assertElementContainsText", "helper")) {
+            WebElement element = getElement(locator);
+            String actualText = getElementText(element);
+            try {
+                Assert.assertTrue(actualText.contains(text),
+                        String.format("Assertion Failed: Text does not contain the expected value. Expected: '%s', Found: '%s'", text, actualText));
+                logger.info("Assertion Passed: Element text contains expected value: '{}'", text);
+                recordAssertion("assertElementContainsText", true, "Element text contains: " + text);
+            } catch (AssertionError e) {
+                logger.error("Assertion Failed: Element text does not contain expected value. Expected: '{}', Found: '{}'.", text, actualText, e);
+                recordAssertion("assertElementContainsText", false, "Element text contains: " + text);
+                throw e;
+            }
         }
     }
 
@@ -131,8 +151,10 @@ public class AssertionHelper {
      * @param locator the By locator or WebElement to check
      */
     public void assertElementEnabled(Object locator) {
-        WebElement element = getElement(locator);
-        assertElementCondition(element.isEnabled(), "Element is enabled: " + element);
+        try (Span ignored = Tracer.start("AssertionHelper.assertElementEnabled", "helper")) {
+            WebElement element = getElement(locator);
+            assertElementCondition(element.isEnabled(), "Element is enabled: " + element);
+        }
     }
 
     /**
@@ -141,8 +163,10 @@ public class AssertionHelper {
      * @param locator the By locator or WebElement to check
      */
     public void assertElementSelected(Object locator) {
-        WebElement element = getElement(locator);
-        assertElementCondition(element.isSelected(), "Element is selected: " + element);
+        try (Span ignored = Tracer.start("AssertionHelper.assertElementSelected", "helper")) {
+            WebElement element = getElement(locator);
+            assertElementCondition(element.isSelected(), "Element is selected: " + element);
+        }
     }
 
     /**
@@ -151,8 +175,10 @@ public class AssertionHelper {
      * @param expectedTitle the expected page title
      */
     public void assertPageTitle(String expectedTitle) {
-        String actualTitle = driver.getTitle();
-        assertEquals(actualTitle, expectedTitle, "Page title assertion");
+        try (Span ignored = Tracer.start("AssertionHelper.assertPageTitle", "helper")) {
+            String actualTitle = driver.getTitle();
+            assertEquals(actualTitle, expectedTitle, "Page title assertion");
+        }
     }
 
     /**
@@ -161,8 +187,10 @@ public class AssertionHelper {
      * @param expectedUrl the expected URL
      */
     public void assertCurrentUrl(String expectedUrl) {
-        String actualUrl = driver.getCurrentUrl();
-        assertEquals(actualUrl, expectedUrl, "Current URL assertion");
+        try (Span ignored = Tracer.start("AssertionHelper.assertCurrentUrl", "helper")) {
+            String actualUrl = driver.getCurrentUrl();
+            assertEquals(actualUrl, expectedUrl, "Current URL assertion");
+        }
     }
 
     /**
@@ -171,17 +199,47 @@ public class AssertionHelper {
      * @param substring the expected substring in the URL
      */
     public void assertUrlContains(String substring) {
-        String actualUrl = driver.getCurrentUrl();
-        try {
-            Assert.assertTrue(actualUrl.contains(substring),
-                    String.format("Assertion Failed: URL does not contain expected substring. Expected: '%s', Found: '%s'", substring, actualUrl));
-            logger.info("Assertion Passed: Current URL contains expected substring: '{}'", substring);
-        } catch (AssertionError e) {
-            logger.error("Assertion Failed: URL does not contain expected substring. Expected: '{}', Found: '{}'.", substring, actualUrl, e);
-            throw e;
+        try (Span ignored = Tracer.start("AssertionHelper.assertUrlContains", "helper")) {
+            String actualUrl = driver.getCurrentUrl();
+            try {
+                Assert.assertTrue(actualUrl.contains(substring),
+                        String.format("Assertion Failed: URL does not contain expected substring. Expected: '%s', Found: '%s'", substring, actualUrl));
+                logger.info("Assertion Passed: Current URL contains expected substring: '{}'", substring);
+                recordAssertion("assertUrlContains", true, "URL contains: " + substring);
+            } catch (AssertionError e) {
+                logger.error("Assertion Failed: URL does not contain expected substring. Expected: '{}', Found: '{}'.", substring, actualUrl, e);
+                recordAssertion("assertUrlContains", false, "URL contains: " + substring);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Emits a JFR assertion event; costs only an enabled check when no recording includes it.
+     *
+     * @param assertion the assertion name
+     * @param passed    whether the assertion passed
+     * @param message   the assertion message
+     */
+    static void recordAssertion(String assertion, boolean passed, String message) {
+        AssertionEvent event = new AssertionEvent();
+        if (event.shouldCommit()) {
+            event.assertion = assertion;
+            event.passed = passed;
+            event.message = message;
+            event.commit();
         }
     }
 
+    /**
+     * Starts a batch of page-state expectations that are verified together against one browser snapshot.
+     *
+     * @return a new PageStateAssertion bound to this helper's driver and wait
+     */
+    public PageStateAssertion expectPageState() {
+        return new PageStateAssertion(driver, wait);
+    }
+
     /**
      * Asserts that a WebElement meets a specific condition.
      *
@@ -192,8 +250,10 @@ public class AssertionHelper {
         try {
             Assert.assertTrue(condition, "Assertion Failed: " + message);
             logger.info("Assertion Passed: {}", message);
+            recordAssertion("assertElementCondition", true, message);
         } catch (AssertionError e) {
             logger.error("Assertion Failed: {}", message, e);
+            recordAssertion("assertElementCondition", false, message);
             throw e;
         }
     }
@@ -9,21 +9,26 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import utilities.config.PropertyFileReader;
 
-import java.time.Duration;
 import java.util.List;
 
 public class CheckBoxHelper {
     private static final Logger logger = LogManager.getLogger(CheckBoxHelper.class);
-    private static final PropertyFileReader config = new PropertyFileReader();
     private final WebDriver driver;
     private final WebDriverWait wait;
 
     public CheckBoxHelper(WebDriver driver) {
-        this.driver = driver;
-        int waitDuration = config.getDefaultWaitDuration();
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(waitDuration));
+        this(HelperContext.of(driver));
+    }
+
+    /**
+     * Constructor reusing the wait owned by the session's HelperContext.
+     *
+     * @param context the shared HelperContext of the driver session
+     */
+    public CheckBoxHelper(HelperContext context) {
+        this.driver = context.getDriver();
+        this.wait = context.getWait();
     }
 
     /**
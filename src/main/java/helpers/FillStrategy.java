@@ -0,0 +1,93 @@
+package helpers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utilities.config.PropertyFileReader;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * How {@link GeneralHelper#fillText} puts text into a field.
+ * <p>
+ * {@link #TYPE} clears the field and sends the text key by key. {@link #SET_VALUE} assigns the value through the
+ * element's native value setter in one script call and fires input, change and blur, so framework-bound inputs (React,
+ * Angular) pick the change up; it is much faster for long text. The default comes from {@code fillStrategy} and can
+ * be set per page object with {@code fillStrategy.<PageObjectClass>}, or passed per field.
+ */
+public enum FillStrategy {
+    TYPE,
+    SET_VALUE;
+
+    private static final Logger logger = LogManager.getLogger(FillStrategy.class);
+    // Text length buckets timings are reported in: up to 16, 64, 256, 1024 characters, and longer
+    private static final int[] BUCKET_LIMITS = {16, 64, 256, 1024};
+    // A constant, since the counters below are created before the enum's other static fields are initialized
+    private static final int BUCKET_COUNT = 5;
+
+    private final AtomicLong[] fills = newCounters();
+    private final AtomicLong[] nanos = newCounters();
+
+    /**
+     * Returns the configured strategy for a page object, falling back to the global {@code fillStrategy}.
+     *
+     * @param pageObject the page object class
+     * @return the fill strategy for the page object's fields
+     */
+    public static FillStrategy forPage(Class<?> pageObject) {
+        PropertyFileReader config = PropertyFileReader.getInstance();
+        return parse(config.getPropertyOrDefault("fillStrategy." + pageObject.getSimpleName(), defaultStrategy().name()));
+    }
+
+    /**
+     * Returns the global strategy from {@code fillStrategy}.
+     *
+     * @return the default fill strategy
+     */
+    public static FillStrategy defaultStrategy() {
+        return parse(PropertyFileReader.getInstance().getPropertyOrDefault("fillStrategy", "type"));
+    }
+
+    private static FillStrategy parse(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+     * Logs the average fill time per text length for each strategy that was used.
+     */
+    public static void logStatistics() {
+        for (FillStrategy strategy : values()) {
+            StringBuilder buckets = new StringBuilder();
+            for (int i = 0; i < strategy.fills.length; i++) {
+                long count = strategy.fills[i].get();
+                if (count > 0) {
+                    buckets.append(String.format("%n  %-14s %8.1f ms avg over %d fill(s)", bucketName(i), strategy.nanos[i].get() / 1_000_000.0 / count, count));
+                }
+            }
+            if (buckets.length() > 0) {
+                logger.info("Fill strategy {} by text length:{}", strategy, buckets);
+            }
+        }
+    }
+
+    void record(int textLength, long elapsedNanos) {
+        int bucket = 0;
+        while (bucket < BUCKET_LIMITS.length && textLength > BUCKET_LIMITS[bucket]) {
+            bucket++;
+        }
+        fills[bucket].incrementAndGet();
+        nanos[bucket].addAndGet(elapsedNanos);
+    }
+
+    private static String bucketName(int bucket) {
+        return bucket < BUCKET_LIMITS.length ? "<= " + BUCKET_LIMITS[bucket] + " chars" : "> " + BUCKET_LIMITS[BUCKET_LIMITS.length - 1] + " chars";
+    }
+
+    private static AtomicLong[] newCounters() {
+        AtomicLong[] counters = new AtomicLong[BUCKET_COUNT];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new AtomicLong();
+        }
+        return counters;
+    }
+}
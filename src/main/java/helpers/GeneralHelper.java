@@ -3,29 +3,58 @@ package helpers;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import utilities.config.PropertyFileReader;
-
-import java.time.Duration;
+import utilities.jfr.WaitEvent;
+import utilities.tracing.Span;
+import utilities.tracing.Tracer;
 
 public class GeneralHelper {
     private static final Logger logger = LogManager.getLogger(GeneralHelper.class);
-    private static final PropertyFileReader config = new PropertyFileReader();
+    // Uses the value setter of the element's own prototype chain, because frameworks like React shadow it on the element
+    // to track edits; an element without one throws, so the caller types instead
+    private static final String SET_VALUE_SCRIPT =
+            "var e = arguments[0], v = arguments[1];"
+                    + " e.focus();"
+                    + " if (e.isContentEditable) { e.textContent = v; } else {"
+                    + "   var proto = Object.getPrototypeOf(e), d;"
+                    + "   while (proto && !(d = Object.getOwnPropertyDescriptor(proto, 'value'))) proto = Object.getPrototypeOf(proto);"
+                    + "   if (!d || !d.set) throw new Error('element has no value setter');"
+                    + "   d.set.call(e, v); }"
+                    + " e.dispatchEvent(new Event('input', {bubbles: true}));"
+                    + " e.dispatchEvent(new Event('change', {bubbles: true}));"
+                    + " e.blur();"
+                    + " return e.isContentEditable ? e.textContent : e.value;";
+    private final HelperContext context;
+    private final FillStrategy defaultFillStrategy;
+    private final boolean verifyFill;
     private final WebDriver driver;
     private final WebDriverWait wait;
-    private final Actions actions;
 
     public GeneralHelper(WebDriver driver) {
-        this.driver = driver;
-        int waitDuration = config.getDefaultWaitDuration();
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(waitDuration));
-        this.actions = new Actions(driver);
-        logger.info("GeneralHelper initialized with driver instance hash: {} and timeout: {} seconds", System.identityHashCode(driver), waitDuration);
+        this(HelperContext.of(driver));
+    }
+
+    /**
+     * Constructor reusing the wait owned by the session's HelperContext.
+     *
+     * @param context the shared HelperContext of the driver session
+     */
+    public GeneralHelper(HelperContext context) {
+        this.context = context;
+        this.defaultFillStrategy = FillStrategy.defaultStrategy();
+        this.verifyFill = context.config().getBooleanPropertyOrDefault("fillVerify", true);
+        this.driver = context.getDriver();
+        this.wait = context.getWait();
+        logger.info("GeneralHelper initialized with driver instance hash: {} and timeout: {} seconds",
+                System.identityHashCode(driver), context.config().getDefaultWaitDuration());
     }
 
     /**
@@ -36,9 +65,9 @@ public class GeneralHelper {
      */
     public WebElement getElement(Object locator) {
         logger.debug("Waiting for visibility of locator: {}", locator);
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.getElement", "helper")) {
             WebElement element = resolveLocator(locator);
-            WebElement visibleElement = wait.until(ExpectedConditions.visibilityOf(element));
+            WebElement visibleElement = waitForVisibility(element);
             logger.debug("Element is now visible: {}", visibleElement);
             return visibleElement;
         } catch (NoSuchElementException e) {
@@ -50,6 +79,33 @@ public class GeneralHelper {
         }
     }
 
+    /**
+     * Waits for the element to be visible, recording the wait as a JFR event.
+     *
+     * @param element the element to wait for
+     * @return the visible WebElement
+     */
+    private WebElement waitForVisibility(WebElement element) {
+        WaitEvent event = new WaitEvent();
+        event.begin();
+        try {
+            WebElement visibleElement = wait.until(d -> {
+                event.pollCount++;
+                return ExpectedConditions.visibilityOf(element).apply(d);
+            });
+            event.matched = true;
+            return visibleElement;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.helper = "GeneralHelper";
+                event.condition = "visibility of " + element;
+                event.strategy = "polling";
+                event.commit();
+            }
+        }
+    }
+
     /**
      * Resolves a locator (By or WebElement) to a visible WebElement.
      *
@@ -68,6 +124,16 @@ public class GeneralHelper {
         }
     }
 
+    /**
+     * Starts recording interactions across several elements, to be sent as one W3C Actions sequence.
+     *
+     * @param flow the name the batch is timed and reported under, e.g. "login"
+     * @return a new, empty InteractionBatch
+     */
+    public InteractionBatch batch(String flow) {
+        return new InteractionBatch(context, flow);
+    }
+
     /**
      * Clicks on the provided element (By locator or WebElement).
      *
@@ -75,7 +141,7 @@ public class GeneralHelper {
      */
     public void click(Object locator) {
         logger.info("Clicking on locator: {}", locator);
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.click", "helper")) {
             scrollToElement(locator);
             getElement(locator).click();
             logger.info("Clicked on locator: {}", locator);
@@ -89,18 +155,34 @@ public class GeneralHelper {
     }
 
     /**
-     * Enters text into the provided element (By locator or WebElement).
+     * Enters text into the provided element (By locator or WebElement), using the configured {@code fillStrategy}.
      *
      * @param locator the By locator or WebElement to fill text into
      * @param text    the text to enter
      */
     public void fillText(Object locator, String text) {
-        logger.info("Filling text '{}' in locator: {}", text, locator);
-        try {
+        fillText(locator, text, defaultFillStrategy);
+    }
+
+    /**
+     * Enters text into the provided element (By locator or WebElement) using the given strategy.
+     *
+     * @param locator  the By locator or WebElement to fill text into
+     * @param text     the text to enter
+     * @param strategy type key by key, or set the value directly and fire the input events
+     */
+    public void fillText(Object locator, String text, FillStrategy strategy) {
+        logger.info("Filling text '{}' in locator: {} ({})", text, locator, strategy);
+        try (Span ignored = Tracer.start("GeneralHelper.fillText", "helper").attribute("fill.strategy", strategy)) {
             scrollToElement(locator);
             WebElement visibleElement = getElement(locator);
-            visibleElement.clear();
-            visibleElement.sendKeys(text);
+            // setValue records its own script time; typing is timed without the scroll and wait above, the same way
+            if (strategy != FillStrategy.SET_VALUE || !setValue(visibleElement, text)) {
+                long start = System.nanoTime();
+                visibleElement.clear();
+                visibleElement.sendKeys(text);
+                FillStrategy.TYPE.record(text.length(), System.nanoTime() - start);
+            }
             logger.info("Filled text in locator: {}", locator);
         } catch (NoSuchElementException e) {
             logger.error("Failed to fill text in locator: {}. Element not found. Exception: {}", locator, e.getMessage());
@@ -111,6 +193,36 @@ public class GeneralHelper {
         }
     }
 
+    /**
+     * Sets the value through the element's native setter and fires the events a user edit would, in one script call.
+     * A successful call is recorded in the {@link FillStrategy#SET_VALUE} statistics with the time of the script alone.
+     *
+     * @return false if the text still has to be typed: no JavaScript, the script failed or the read-back did not match
+     */
+    boolean setValue(WebElement element, String text) {
+        if (!context.javascriptEnabled()) {
+            return false;
+        }
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = ((JavascriptExecutor) driver).executeScript(SET_VALUE_SCRIPT, element, text);
+        } catch (StaleElementReferenceException | NoSuchSessionException e) {
+            throw e;
+        } catch (WebDriverException e) {
+            // A JavascriptException on most drivers; HtmlUnit reports script errors as a plain WebDriverException
+            logger.warn("Could not set the value directly ({}); typing it instead.", e.getMessage().lines().findFirst().orElse(""));
+            return false;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (verifyFill && !text.equals(value)) {
+            logger.warn("Setting the value directly left '{}' instead of '{}'; typing it instead.", value, text);
+            return false;
+        }
+        FillStrategy.SET_VALUE.record(text.length(), elapsed);
+        return true;
+    }
+
     /**
      * Clears the text from the provided element (By locator or WebElement).
      *
@@ -118,7 +230,7 @@ public class GeneralHelper {
      */
     public void clearText(Object locator) {
         logger.info("Clearing text in locator: {}", locator);
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.clearText", "helper")) {
             scrollToElement(locator);
             getElement(locator).clear();
             logger.info("Cleared text in locator: {}", locator);
@@ -139,7 +251,7 @@ public class GeneralHelper {
      */
     public String getText(Object locator) {
         logger.info("Getting text from locator: {}", locator);
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.getText", "helper")) {
             scrollToElement(locator);
             String text = getElement(locator).getText();
             logger.info("Retrieved text: '{}' from locator: {}", text, locator);
@@ -160,9 +272,9 @@ public class GeneralHelper {
      */
     public void doubleClick(Object locator) {
         logger.info("Double-clicking on locator: {}", locator);
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.doubleClick", "helper")) {
             scrollToElement(locator);
-            actions.doubleClick(getElement(locator)).perform();
+            context.getActions().doubleClick(getElement(locator)).perform();
             logger.info("Double-clicked on locator: {}", locator);
         } catch (NoSuchElementException e) {
             logger.error("Failed to double-click on locator: {}. Element not found. Exception: {}", locator, e.getMessage());
@@ -180,8 +292,8 @@ public class GeneralHelper {
      */
     public void scrollToElement(Object locator) {
         logger.info("Scrolling to locator: {}", locator);
-        try {
-            actions.moveToElement(resolveLocator(locator)).perform();
+        try (Span ignored = Tracer.start("GeneralHelper.scrollToElement", "helper")) {
+            context.getActions().moveToElement(resolveLocator(locator)).perform();
             logger.info("Scrolled to locator: {}", locator);
         } catch (NoSuchElementException e) {
             logger.error("Failed to scroll to locator: {}. Element not found. Exception: {}", locator, e.getMessage());
@@ -199,9 +311,9 @@ public class GeneralHelper {
      */
     public void focusOnElement(Object locator) {
         logger.info("Focusing on locator: {}", locator);
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.focusOnElement", "helper")) {
             scrollToElement(locator);
-            actions.moveToElement(getElement(locator)).click().perform();
+            context.getActions().moveToElement(getElement(locator)).click().perform();
             logger.info("Focused on locator and clicked: {}", locator);
         } catch (NoSuchElementException e) {
             logger.error("Failed to focus on and click locator: {}. Element not found. Exception: {}", locator, e.getMessage());
@@ -213,14 +325,14 @@ public class GeneralHelper {
     }
 
     /**
-     * Navigates to the provided URL.
+     * Navigates to the provided URL, skipping the page load if the browser already shows it in a clean state.
      *
      * @param url the URL to navigate to
      */
     public void navigateToUrl(String url) {
         logger.info("Navigating to URL: {}", url);
-        try {
-            driver.navigate().to(url);
+        try (Span ignored = Tracer.start("GeneralHelper.navigateToUrl", "helper")) {
+            context.navigation().open(url);
             logger.info("Navigated to URL: {}", url);
         } catch (Exception e) {
             logger.error("Failed to navigate to URL: {}. Exception: {}", url, e.getMessage());
@@ -233,7 +345,7 @@ public class GeneralHelper {
      */
     public void backBrowser() {
         logger.info("Navigating back in the browser.");
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.backBrowser", "helper")) {
             driver.navigate().back();
             logger.info("Navigated back in the browser.");
         } catch (Exception e) {
@@ -247,7 +359,7 @@ public class GeneralHelper {
      */
     public void forwardBrowser() {
         logger.info("Navigating forward in the browser.");
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.forwardBrowser", "helper")) {
             driver.navigate().forward();
             logger.info("Navigated forward in the browser.");
         } catch (Exception e) {
@@ -261,7 +373,7 @@ public class GeneralHelper {
      */
     public void refreshPage() {
         logger.info("Refreshing the page.");
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.refreshPage", "helper")) {
             driver.navigate().refresh();
             logger.info("Page refreshed.");
         } catch (Exception e) {
@@ -276,7 +388,7 @@ public class GeneralHelper {
      * @return the current URL
      */
     public String getCurrentUrl() {
-        try {
+        try (Span ignored = Tracer.start("GeneralHelper.getCurrentUrl", "helper")) {
             String currentUrl = driver.getCurrentUrl();
             logger.info("Current URL: {}", currentUrl);
             return currentUrl;
@@ -0,0 +1,220 @@
+package helpers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import utilities.config.PropertyFileReader;
+import utilities.drivermanager.GetDriverManager;
+import utilities.drivermanager.SessionKey;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-session owner of the objects every helper needs: the configuration, the default {@link WebDriverWait} and
+ * the helpers themselves. Everything is created lazily on first use and
+ * shared by all page objects working with the same driver; the context is dropped when the session is quit.
+ */
+public class HelperContext {
+    private static final Logger logger = LogManager.getLogger(HelperContext.class);
+    private static final Map<SessionKey, HelperContext> contexts = new ConcurrentHashMap<>();
+    private static final LongAdder contextsCreated = new LongAdder();
+    private static final LongAdder objectsCreated = new LongAdder();
+
+    static {
+        GetDriverManager.onSessionEnd(HelperContext::release);
+    }
+
+    private final WebDriver driver;
+    private final PropertyFileReader config = PropertyFileReader.getInstance();
+    private final AtomicInteger created = new AtomicInteger();
+    private WebDriverWait wait;
+    private GeneralHelper general;
+    private AssertionHelper assertion;
+    private AlertHelper alert;
+    private DropDownHelper dropDown;
+    private CheckBoxHelper checkBox;
+    private WaitHelper waits;
+    private JsExecutorHelper js;
+    private Navigation navigation;
+    private Boolean javascriptEnabled;
+    private Boolean scriptedStateChecks;
+
+    private HelperContext(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Returns the context for the given driver session, creating it on first use.
+     *
+     * @param driver the WebDriver instance
+     * @return the shared HelperContext
+     */
+    public static HelperContext of(WebDriver driver) {
+        HelperContext context = contexts.get(new SessionKey(driver));
+        if (context == null) {
+            context = contexts.computeIfAbsent(new SessionKey(driver), key -> {
+                contextsCreated.increment();
+                return new HelperContext(driver);
+            });
+        }
+        return context;
+    }
+
+    /**
+     * Drops the context of the given driver session, ending its alert helper's prompt subscription, and logs how many
+     * objects it had to build.
+     *
+     * @param driver the WebDriver instance
+     */
+    public static void release(WebDriver driver) {
+        HelperContext context = contexts.remove(new SessionKey(driver));
+        if (context != null) {
+            synchronized (context) {
+                if (context.alert != null) {
+                    context.alert.close();
+                }
+            }
+            logger.info("HelperContext for driver instance hash: {} created {} shared object(s) during the session.",
+                    System.identityHashCode(driver), context.created.get());
+        }
+    }
+
+    /**
+     * Logs how many contexts and shared helper objects were built during the run.
+     */
+    public static void logStatistics() {
+        logger.info("HelperContext: {} session context(s), {} shared helper object(s) created.", contextsCreated.sum(), objectsCreated.sum());
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    public PropertyFileReader config() {
+        return config;
+    }
+
+    public synchronized WebDriverWait getWait() {
+        if (wait == null) {
+            wait = track(new WebDriverWait(driver, Duration.ofSeconds(config.getDefaultWaitDuration())));
+        }
+        return wait;
+    }
+
+    /**
+     * Returns a new {@link Actions} builder for the session. Builders keep queued actions until perform(), so they are
+     * not shared: a call failing between queuing and perform() would leave its actions for the next caller to replay.
+     *
+     * @return a fresh Actions builder
+     */
+    public Actions getActions() {
+        return new Actions(driver);
+    }
+
+    public synchronized GeneralHelper general() {
+        if (general == null) {
+            general = track(new GeneralHelper(this));
+        }
+        return general;
+    }
+
+    public synchronized AssertionHelper assertion() {
+        if (assertion == null) {
+            assertion = track(new AssertionHelper(this));
+        }
+        return assertion;
+    }
+
+    public synchronized AlertHelper alert() {
+        if (alert == null) {
+            alert = track(new AlertHelper(this));
+        }
+        return alert;
+    }
+
+    public synchronized DropDownHelper dropDown() {
+        if (dropDown == null) {
+            dropDown = track(new DropDownHelper(this));
+        }
+        return dropDown;
+    }
+
+    public synchronized CheckBoxHelper checkBox() {
+        if (checkBox == null) {
+            checkBox = track(new CheckBoxHelper(this));
+        }
+        return checkBox;
+    }
+
+    public synchronized WaitHelper waits() {
+        if (waits == null) {
+            waits = track(new WaitHelper(this));
+        }
+        return waits;
+    }
+
+    public synchronized JsExecutorHelper js() {
+        if (js == null) {
+            js = track(new JsExecutorHelper(this));
+        }
+        return js;
+    }
+
+    public synchronized Navigation navigation() {
+        if (navigation == null) {
+            navigation = track(new Navigation(this));
+        }
+        return navigation;
+    }
+
+    /**
+     * Returns whether the session can run JavaScript; probed once per session, since in-JVM drivers such as
+     * HtmlUnit may run with JavaScript disabled.
+     *
+     * @return true if scripts can be executed
+     */
+    public synchronized boolean javascriptEnabled() {
+        if (javascriptEnabled == null) {
+            javascriptEnabled = false;
+            if (driver instanceof JavascriptExecutor) {
+                try {
+                    javascriptEnabled = Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript("return true;"));
+                } catch (UnsupportedOperationException | WebDriverException e) {
+                    logger.info("JavaScript is not available for driver instance hash: {}; helpers will avoid scripts.",
+                            System.identityHashCode(driver));
+                }
+            }
+        }
+        return javascriptEnabled;
+    }
+
+    /**
+     * Returns whether element state such as visibility can be computed by page scripts. HtmlUnit runs scripts but
+     * has no layout engine, so sizes are always zero and helpers must ask the driver instead.
+     *
+     * @return true if in-page snapshot and observer scripts give reliable results
+     */
+    public synchronized boolean scriptedStateChecks() {
+        if (scriptedStateChecks == null) {
+            String browserName = driver instanceof HasCapabilities ? ((HasCapabilities) driver).getCapabilities().getBrowserName() : "";
+            scriptedStateChecks = javascriptEnabled() && !"htmlunit".equalsIgnoreCase(browserName);
+        }
+        return scriptedStateChecks;
+    }
+
+    private <T> T track(T object) {
+        created.incrementAndGet();
+        objectsCreated.increment();
+        logger.debug("HelperContext created {} for driver instance hash: {}", object.getClass().getSimpleName(), System.identityHashCode(driver));
+        return object;
+    }
+}
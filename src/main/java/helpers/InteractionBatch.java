@@ -0,0 +1,282 @@
+package helpers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+import org.openqa.selenium.interactions.Interactive;
+import utilities.drivermanager.CommandInstrumentation;
+import utilities.drivermanager.GetDriverManager;
+import utilities.tracing.Span;
+import utilities.tracing.Tracer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records a sequence of interactions across several elements (type into A, type into B, press a key, click C) and
+ * sends it to the browser as a single W3C Actions sequence.
+ * <p>
+ * Visibility and enabled state of every element are checked once up front, in one script call where the session
+ * supports it, instead of a scroll, wait and clear per element. Fields are filled with the batch's {@link FillStrategy}:
+ * with {@link FillStrategy#SET_VALUE} their values are set by script in sequence, and only the remaining interactions
+ * go through Actions. With {@code interactionBatching=false} the same batch replays through the step-by-step
+ * {@link GeneralHelper} path, so both can be compared: every named flow is timed and its WebDriver commands counted,
+ * and {@link #logStatistics()} reports the two side by side.
+ */
+public class InteractionBatch {
+    private static final Logger logger = LogManager.getLogger(InteractionBatch.class);
+    private static final Map<String, FlowStatistics> statistics = new ConcurrentHashMap<>();
+    // Index of the first element that is detached, hidden or disabled, or -1 once all are ready
+    private static final String FIRST_NOT_READY_SCRIPT =
+            "return arguments[0].findIndex(function (e) {"
+                    + " return !e.isConnected || e.getClientRects().length === 0 || e.disabled"
+                    + " || getComputedStyle(e).visibility === 'hidden'; });";
+    private static final String SCROLL_INTO_VIEW_SCRIPT =
+            "var r = arguments[0].getBoundingClientRect();"
+                    + " if (r.top < 0 || r.bottom > window.innerHeight) { arguments[0].scrollIntoView({block: 'center'}); }";
+
+    private final HelperContext context;
+    private final String flow;
+    private final List<Interaction> interactions = new ArrayList<>();
+    private FillStrategy fillStrategy = FillStrategy.defaultStrategy();
+
+    InteractionBatch(HelperContext context, String flow) {
+        this.context = context;
+        this.flow = flow;
+    }
+
+    /**
+     * Sets how the batch's {@link #type} interactions put text into fields; defaults to {@code fillStrategy}.
+     *
+     * @param strategy the strategy, usually the page object's {@link FillStrategy#forPage}
+     * @return this batch
+     */
+    public InteractionBatch fillStrategy(FillStrategy strategy) {
+        this.fillStrategy = strategy;
+        return this;
+    }
+
+    /**
+     * Replaces the text of the element with the given text.
+     *
+     * @param locator the By locator or WebElement to type into
+     * @param text    the text to enter
+     * @return this batch
+     */
+    public InteractionBatch type(Object locator, String text) {
+        interactions.add(new Interaction(Kind.TYPE, locator, text == null ? "" : text));
+        return this;
+    }
+
+    /**
+     * Clicks the element.
+     *
+     * @param locator the By locator or WebElement to click
+     * @return this batch
+     */
+    public InteractionBatch click(Object locator) {
+        interactions.add(new Interaction(Kind.CLICK, locator, null));
+        return this;
+    }
+
+    /**
+     * Presses a key, or types a key sequence, into the element that has focus at that point of the batch.
+     *
+     * @param keys the key(s), e.g. {@link Keys#ENTER}
+     * @return this batch
+     */
+    public InteractionBatch pressKey(CharSequence keys) {
+        interactions.add(new Interaction(Kind.KEY, null, keys));
+        return this;
+    }
+
+    /**
+     * Sends the recorded interactions to the browser.
+     */
+    public void perform() {
+        boolean batched = context.config().getBooleanPropertyOrDefault("interactionBatching", true);
+        logger.info("Performing {} interaction(s) of flow '{}' {}", interactions.size(), flow, batched ? "as one batch" : "step by step");
+        CommandInstrumentation instrumentation = GetDriverManager.getInstrumentation();
+        long commandsBefore = instrumentation == null ? 0 : instrumentation.getScenarioCommands();
+        long start = System.nanoTime();
+        try (Span ignored = Tracer.start("InteractionBatch.perform", "helper")
+                .attribute("flow", flow)
+                .attribute("batched", batched)
+                .attribute("fill.strategy", fillStrategy)
+                .attribute("interactions", interactions.size())) {
+            if (batched && context.getDriver() instanceof Interactive) {
+                performBatched();
+            } else {
+                performStepByStep();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to perform interactions of flow '{}'. Exception: {}", flow, e.getMessage());
+            throw e;
+        }
+        long commands = instrumentation == null ? -1 : instrumentation.getScenarioCommands() - commandsBefore;
+        statistics.computeIfAbsent(flow, name -> new FlowStatistics()).record(batched, System.nanoTime() - start, commands);
+    }
+
+    /**
+     * Logs, per flow, the average duration and WebDriver command count of batched and step-by-step runs.
+     */
+    public static void logStatistics() {
+        statistics.forEach((flow, stats) -> logger.info("Interaction flow '{}': {}", flow, stats));
+    }
+
+    private void performBatched() {
+        WebDriver driver = context.getDriver();
+        Map<Object, WebElement> elements = new LinkedHashMap<>();
+        for (Interaction interaction : interactions) {
+            if (interaction.locator != null) {
+                elements.computeIfAbsent(interaction.locator, this::resolve);
+            }
+        }
+        List<WebElement> targets = new ArrayList<>(elements.values());
+        awaitReady(targets);
+
+        Actions actions = new Actions(driver);
+        boolean pending = false;
+        Keys selectAll = isMac(driver) ? Keys.COMMAND : Keys.CONTROL;
+        for (Interaction interaction : interactions) {
+            if (interaction.kind == Kind.TYPE && fillStrategy == FillStrategy.SET_VALUE) {
+                // Earlier actions go first, so the value is set at its place in the sequence
+                if (pending) {
+                    actions.perform();
+                    actions = new Actions(driver);
+                    pending = false;
+                }
+                if (context.general().setValue(elements.get(interaction.locator), interaction.text.toString())) {
+                    continue;
+                }
+            }
+            pending = true;
+            switch (interaction.kind) {
+                case TYPE:
+                    // Clicking focuses the field; select-all makes the typed text replace what was there
+                    actions.click(elements.get(interaction.locator))
+                            .keyDown(selectAll).sendKeys("a").keyUp(selectAll)
+                            .sendKeys(interaction.text.length() == 0 ? Keys.BACK_SPACE : interaction.text);
+                    break;
+                case CLICK:
+                    actions.click(elements.get(interaction.locator));
+                    break;
+                default:
+                    actions.sendKeys(interaction.text);
+                    break;
+            }
+        }
+        if (pending) {
+            actions.perform();
+        }
+    }
+
+    private void performStepByStep() {
+        GeneralHelper general = context.general();
+        for (Interaction interaction : interactions) {
+            switch (interaction.kind) {
+                case TYPE:
+                    general.fillText(interaction.locator, interaction.text.toString(), fillStrategy);
+                    break;
+                case CLICK:
+                    general.click(interaction.locator);
+                    break;
+                default:
+                    context.getActions().sendKeys(interaction.text).perform();
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Waits until every element is attached, visible and enabled, then brings the first one into view.
+     */
+    private void awaitReady(List<WebElement> targets) {
+        if (targets.isEmpty()) {
+            return;
+        }
+        if (context.scriptedStateChecks()) {
+            JavascriptExecutor js = (JavascriptExecutor) context.getDriver();
+            context.getWait().until(d -> ((Number) js.executeScript(FIRST_NOT_READY_SCRIPT, targets)).intValue() < 0);
+            js.executeScript(SCROLL_INTO_VIEW_SCRIPT, targets.get(0));
+        } else {
+            context.getWait().until(d -> targets.stream().allMatch(element -> element.isDisplayed() && element.isEnabled()));
+        }
+    }
+
+    private WebElement resolve(Object locator) {
+        if (locator instanceof By) {
+            return context.getDriver().findElement((By) locator);
+        } else if (locator instanceof WebElement) {
+            return (WebElement) locator;
+        }
+        throw new IllegalArgumentException("Locator must be of type By or WebElement.");
+    }
+
+    private static boolean isMac(WebDriver driver) {
+        try {
+            Platform platform = driver instanceof HasCapabilities ? ((HasCapabilities) driver).getCapabilities().getPlatformName() : null;
+            return platform != null && platform.is(Platform.MAC);
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private enum Kind {
+        TYPE, CLICK, KEY
+    }
+
+    private static final class Interaction {
+        private final Kind kind;
+        private final Object locator;
+        private final CharSequence text;
+
+        Interaction(Kind kind, Object locator, CharSequence text) {
+            this.kind = kind;
+            this.locator = locator;
+            this.text = text;
+        }
+    }
+
+    private static final class FlowStatistics {
+        private final AtomicLong[] runs = {new AtomicLong(), new AtomicLong()};
+        private final AtomicLong[] nanos = {new AtomicLong(), new AtomicLong()};
+        private final AtomicLong[] commands = {new AtomicLong(), new AtomicLong()};
+
+        void record(boolean batched, long elapsedNanos, long commandCount) {
+            int mode = batched ? 1 : 0;
+            runs[mode].incrementAndGet();
+            nanos[mode].addAndGet(elapsedNanos);
+            commands[mode].addAndGet(Math.max(0, commandCount));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder summary = new StringBuilder();
+            for (int mode = 1; mode >= 0; mode--) {
+                long count = runs[mode].get();
+                if (count > 0) {
+                    if (summary.length() > 0) {
+                        summary.append("; ");
+                    }
+                    summary.append(String.format("%s avg %.1f ms, %.1f WebDriver command(s) over %d run(s)",
+                            mode == 1 ? "batched" : "step by step", nanos[mode].get() / 1_000_000.0 / count,
+                            (double) commands[mode].get() / count, count));
+                }
+            }
+            return summary.toString();
+        }
+    }
+}
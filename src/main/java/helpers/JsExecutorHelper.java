@@ -10,9 +10,20 @@ import org.openqa.selenium.WebElement;
 public class JsExecutorHelper {
     private static final Logger logger = LogManager.getLogger(JsExecutorHelper.class);
     private final WebDriver driver;
+    private final HelperContext context;
 
     public JsExecutorHelper(WebDriver driver) {
-        this.driver = driver;
+        this(HelperContext.of(driver));
+    }
+
+    /**
+     * Constructor using the session's HelperContext, which knows whether the driver can run JavaScript.
+     *
+     * @param context the shared HelperContext of the driver session
+     */
+    public JsExecutorHelper(HelperContext context) {
+        this.driver = context.getDriver();
+        this.context = context;
     }
 
     /**
@@ -54,6 +65,9 @@ public class JsExecutorHelper {
      */
     public void jsScrollToElement(Object locator) {
         WebElement element = resolveLocator(locator);
+        if (skipWithoutJavascript("scroll to element")) {
+            return;
+        }
         executeScript("arguments[0].scrollIntoView(true);", element);
         logger.info("Scrolled to element: {}", locator);
     }
@@ -62,6 +76,9 @@ public class JsExecutorHelper {
      * Scrolls the page to the top.
      */
     public void scrollToTop() {
+        if (skipWithoutJavascript("scroll to top")) {
+            return;
+        }
         executeScript("window.scrollTo(0, 0);");
         logger.info("Scrolled to the top of the page.");
     }
@@ -70,6 +87,9 @@ public class JsExecutorHelper {
      * Scrolls the page to the bottom.
      */
     public void scrollToBottom() {
+        if (skipWithoutJavascript("scroll to bottom")) {
+            return;
+        }
         executeScript("window.scrollTo(0, document.body.scrollHeight);");
         logger.info("Scrolled to the bottom of the page.");
     }
@@ -81,6 +101,9 @@ public class JsExecutorHelper {
      */
     public void highlightElement(Object locator) {
         WebElement element = resolveLocator(locator);
+        if (skipWithoutJavascript("highlight")) {
+            return;
+        }
         executeScript("arguments[0].style.backgroundColor = 'yellow';", element);
         logger.info("Highlighted element: {}", locator);
     }
@@ -92,6 +115,11 @@ public class JsExecutorHelper {
      */
     public void hardClick(Object locator) {
         WebElement element = resolveLocator(locator);
+        if (!context.javascriptEnabled()) {
+            element.click();
+            logger.info("JavaScript unavailable; performed native click on element: {}", locator);
+            return;
+        }
         executeScript("arguments[0].click();", element);
         logger.info("Performed hard click on element: {}", locator);
     }
@@ -103,6 +131,9 @@ public class JsExecutorHelper {
      */
     public void removeHighlight(Object locator) {
         WebElement element = resolveLocator(locator);
+        if (skipWithoutJavascript("remove highlight")) {
+            return;
+        }
         executeScript("arguments[0].style.backgroundColor = '';", element);
         logger.info("Removed highlight from element: {}", locator);
     }
@@ -115,6 +146,12 @@ public class JsExecutorHelper {
      */
     public void setInputValue(Object locator, String value) {
         WebElement element = resolveLocator(locator);
+        if (!context.javascriptEnabled()) {
+            element.clear();
+            element.sendKeys(value);
+            logger.info("JavaScript unavailable; typed input value for element: {} - '{}'", locator, value);
+            return;
+        }
         executeScript("arguments[0].value = arguments[1];", element, value);
         logger.info("Set input value for element: {} to '{}'", locator, value);
     }
@@ -127,8 +164,24 @@ public class JsExecutorHelper {
      */
     public String getInputValue(Object locator) {
         WebElement element = resolveLocator(locator);
-        String value = (String) executeScript("return arguments[0].value;", element);
+        String value = context.javascriptEnabled()
+                ? (String) executeScript("return arguments[0].value;", element)
+                : element.getDomProperty("value");
         logger.info("Retrieved input value for element: {} - Value: '{}'", locator, value);
         return value;
     }
+
+    /**
+     * Skips purely visual script actions when the driver cannot run JavaScript (e.g. HtmlUnit with scripts disabled).
+     *
+     * @param action the action being skipped, for logging
+     * @return true if the action should be skipped
+     */
+    private boolean skipWithoutJavascript(String action) {
+        if (context.javascriptEnabled()) {
+            return false;
+        }
+        logger.warn("JavaScript unavailable; skipped '{}'.", action);
+        return true;
+    }
 }
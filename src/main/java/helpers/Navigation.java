@@ -0,0 +1,228 @@
+package helpers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import utilities.drivermanager.DevBrowser;
+import utilities.tracing.Span;
+import utilities.tracing.Tracer;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Navigation that skips page loads the browser does not need.
+ * <p>
+ * Every full load made through this class stamps the new document and starts watching it. A later
+ * {@link #open(String)} of the same URL is skipped only when the stamp is still there and, since the load:
+ * <ul>
+ *     <li>nothing was typed, clicked (including {@code element.click()} from scripts) or submitted,</li>
+ *     <li>the DOM was not changed, by the page's own timers and requests either,</li>
+ *     <li>the URL was not changed with {@code history.pushState}/{@code replaceState} or back/forward,</li>
+ *     <li>storage and the session's cookies, HttpOnly ones included, are unchanged,</li>
+ * </ul>
+ * and the page has finished loading. The page is then scrolled to the top and unfocused, which leaves it exactly as a
+ * reload would. A target that differs only in its fragment is reached by changing the hash, without a reload. Anything
+ * else, including pages this class did not load, gets a full load, so callers can always rely on a clean starting
+ * state. In-memory script state that never reaches the DOM, storage or cookies is not observed. Pages that keep
+ * changing their DOM after loading are simply always reloaded. Disable with {@code smartNavigation=false}.
+ * <p>
+ * The stamp, including a digest of the cookies WebDriver saw at load time, lives in the document itself rather than in
+ * this object. A later session attached to the same browser, as in dev mode, can therefore still skip a load the
+ * previous session made. The check first asks the page whether it is a skip candidate (one command); only then are the
+ * cookies read and the page scrolled back, so navigations that need a load pay a single extra command.
+ */
+public class Navigation {
+    private static final Logger logger = LogManager.getLogger(Navigation.class);
+
+    private static final String FINGERPRINT_FUNCTION =
+            "function fingerprint() {"
+                    + "  var storage = '';"
+                    + "  try { storage = localStorage.length + '/' + sessionStorage.length; } catch (e) { storage = 'n/a'; }"
+                    + "  var dom = document.getElementsByTagName('*').length + ':' + document.documentElement.outerHTML.length;"
+                    + "  return document.cookie + '|' + storage + '|' + dom;"
+                    + "}";
+    // Marks a freshly loaded document as clean until the first user input, DOM change or history change. The DOM size
+    // in the fingerprint backs up the observer on engines whose MutationObserver misses changes (HtmlUnit)
+    private static final String STAMP_SCRIPT =
+            FINGERPRINT_FUNCTION
+                    + "var stamp = {dirty: false, state: fingerprint(), url: location.href, cookies: arguments[0]};"
+                    + "window.__bddNavigation = stamp;"
+                    + "function markDirty() { stamp.dirty = true; if (stamp.observer) stamp.observer.disconnect(); }"
+                    + "['input', 'change', 'keydown', 'mousedown', 'click', 'submit'].forEach(function(name) {"
+                    + "  document.addEventListener(name, markDirty, true);"
+                    + "});"
+                    + "window.addEventListener('popstate', markDirty, true);"
+                    + "if (window.MutationObserver) {"
+                    + "  stamp.observer = new MutationObserver(markDirty);"
+                    + "  stamp.observer.observe(document, {childList: true, subtree: true, attributes: true, characterData: true});"
+                    + "}";
+    // Returns [outcome, cookie digest of the stamp] without touching the page: outcome is 'skip' (already there and
+    // clean), 'hash' (only the fragment differs) or 'load' (a full load is needed). An empty URL checks the current one
+    private static final String CHECK_SCRIPT =
+            FINGERPRINT_FUNCTION
+                    + "var stamp = window.__bddNavigation, target = new URL(arguments[0] || location.href, location.href).href;"
+                    + "if (!stamp || stamp.dirty || document.readyState !== 'complete' || stamp.state !== fingerprint()"
+                    + "    || location.href !== stamp.url) return ['load', null];"
+                    + "if (location.href === target) return ['skip', stamp.cookies];"
+                    + "var hash = target.indexOf('#');"
+                    + "if (hash >= 0 && location.href.split('#')[0] === target.substring(0, hash)) return ['hash', stamp.cookies];"
+                    + "return ['load', null];";
+    // Leaves a skipped page as a reload would, or moves to the target fragment
+    private static final String APPLY_SCRIPT =
+            "var stamp = window.__bddNavigation, target = new URL(arguments[0], location.href).href;"
+                    + "if (arguments[1] === 'hash') { location.hash = target.substring(target.indexOf('#')); stamp.url = location.href; }"
+                    + "window.scrollTo(0, 0);"
+                    + "if (document.activeElement && document.activeElement !== document.body) document.activeElement.blur();";
+
+    private static final AtomicLong requests = new AtomicLong();
+    private static final AtomicLong fullLoads = new AtomicLong();
+    private static final AtomicLong fullLoadNanos = new AtomicLong();
+    private static final AtomicLong skipped = new AtomicLong();
+    private static final AtomicLong hashNavigations = new AtomicLong();
+    private static final AtomicLong checkNanos = new AtomicLong();
+
+    static {
+        DevBrowser.keepPageWhen(Navigation::isUntouched);
+    }
+
+    private final HelperContext context;
+    private final WebDriver driver;
+    private final boolean enabled;
+
+    public Navigation(HelperContext context) {
+        this.context = context;
+        this.driver = context.getDriver();
+        this.enabled = context.config().getBooleanPropertyOrDefault("smartNavigation", true);
+    }
+
+    /**
+     * Makes sure the browser shows the URL in a clean state, loading it only if needed.
+     *
+     * @param url the URL to open
+     */
+    public void open(String url) {
+        requests.incrementAndGet();
+        try (Span span = Tracer.start("Navigation.open", "helper").attribute("url", url)) {
+            String outcome = check(url);
+            span.attribute("navigation", outcome);
+            if ("skip".equals(outcome)) {
+                skipped.incrementAndGet();
+                logger.info("Already on {} in a clean state; skipped the page load.", url);
+            } else if ("hash".equals(outcome)) {
+                hashNavigations.incrementAndGet();
+                logger.info("Moved to {} within the loaded page.", url);
+            } else {
+                fullLoad(url);
+            }
+        }
+    }
+
+    /**
+     * Loads the URL unconditionally and marks the new page as clean.
+     *
+     * @param url the URL to load
+     */
+    public void load(String url) {
+        requests.incrementAndGet();
+        try (Span ignored = Tracer.start("Navigation.load", "helper").attribute("url", url)) {
+            fullLoad(url);
+        }
+    }
+
+    /**
+     * Logs how many page loads were skipped or replaced by in-page navigation, and the time that saved.
+     */
+    public static void logStatistics() {
+        long count = requests.get();
+        if (count == 0) {
+            return;
+        }
+        long loads = fullLoads.get();
+        long avoided = skipped.get() + hashNavigations.get();
+        long averageLoadNanos = loads == 0 ? 0 : fullLoadNanos.get() / loads;
+        logger.info("Navigation: {} request(s), {} full page load(s) (avg {} ms), {} skipped, {} in-page; ~{} ms saved after {} ms of state checks",
+                count, loads, averageLoadNanos / 1_000_000, skipped.get(), hashNavigations.get(),
+                Math.max(0, avoided * averageLoadNanos - checkNanos.get()) / 1_000_000, checkNanos.get() / 1_000_000);
+    }
+
+    /**
+     * Returns whether the browser still shows a page this class loaded, untouched since, with the same cookies.
+     * DevBrowser keeps such a page when it resets the long-lived browser between sessions.
+     *
+     * @param driver the WebDriver instance
+     * @return true if the current page could be reused without a reload
+     */
+    public static boolean isUntouched(WebDriver driver) {
+        HelperContext context = HelperContext.of(driver);
+        if (!context.config().getBooleanPropertyOrDefault("smartNavigation", true) || !context.javascriptEnabled()) {
+            return false;
+        }
+        try {
+            List<?> state = (List<?>) ((JavascriptExecutor) driver).executeScript(CHECK_SCRIPT, "");
+            return "skip".equals(state.get(0)) && cookieDigest(driver).equals(state.get(1));
+        } catch (WebDriverException | ClassCastException e) {
+            return false;
+        }
+    }
+
+    private String check(String url) {
+        if (!enabled || !context.javascriptEnabled()) {
+            return "load";
+        }
+        long start = System.nanoTime();
+        try {
+            List<?> state = (List<?>) ((JavascriptExecutor) driver).executeScript(CHECK_SCRIPT, url);
+            String outcome = String.valueOf(state.get(0));
+            // HttpOnly cookies are invisible to the page, so the cookie check needs WebDriver; only candidates pay for it
+            if ("load".equals(outcome) || !cookieDigest(driver).equals(state.get(1))) {
+                return "load";
+            }
+            ((JavascriptExecutor) driver).executeScript(APPLY_SCRIPT, url, outcome);
+            return outcome;
+        } catch (WebDriverException | ClassCastException e) {
+            logger.debug("Could not check the page state ({}); loading {}", e.getMessage(), url);
+            return "load";
+        } finally {
+            checkNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void fullLoad(String url) {
+        long start = System.nanoTime();
+        driver.get(url);
+        fullLoads.incrementAndGet();
+        fullLoadNanos.addAndGet(System.nanoTime() - start);
+        if (enabled && context.javascriptEnabled()) {
+            try {
+                ((JavascriptExecutor) driver).executeScript(STAMP_SCRIPT, cookieDigest(driver));
+            } catch (WebDriverException e) {
+                logger.debug("Could not mark {} as clean: {}", url, e.getMessage());
+            }
+        }
+        logger.info("Loaded {} in {} ms", url, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Digests the cookies WebDriver sees for the page, HttpOnly ones included; only the digest is stored in the page,
+     * so no cookie value becomes readable by its scripts.
+     */
+    private static String cookieDigest(WebDriver driver) {
+        String cookies = driver.manage().getCookies().stream()
+                .map(cookie -> cookie.getDomain() + cookie.getPath() + ":" + cookie.getName() + "=" + cookie.getValue())
+                .sorted()
+                .collect(Collectors.joining(";"));
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(cookies.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package helpers;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import utilities.pagefactory.LazyElement;
+import utilities.tracing.Span;
+import utilities.tracing.Tracer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Batch of page-state expectations evaluated together against a single browser snapshot.
+ * <p>
+ * Build it with {@link AssertionHelper#expectPageState()}, declare the expectations and call {@link #verify()}.
+ * Each retry captures title, URL and every element state in one script call, which also resolves the elements' By
+ * locators, and all mismatches are reported together once the default wait expires. Drivers without JavaScript
+ * support fall back to one call per value.
+ */
+public class PageStateAssertion {
+    private static final Logger logger = LogManager.getLogger(PageStateAssertion.class);
+    // In-page approximations of WebElement.isDisplayed() and getAttribute(), shared with WaitHelper's observer waits
+    static final String DISPLAYED_FUNCTION =
+            "function displayed(el) {"
+                    + "  if (!el.isConnected) return false;"
+                    + "  var style = window.getComputedStyle(el);"
+                    + "  if (style.display === 'none' || style.visibility === 'hidden' || style.visibility === 'collapse'"
+                    + "      || parseFloat(style.opacity) === 0) return false;"
+                    + "  var rect = el.getBoundingClientRect();"
+                    + "  return rect.width > 0 && rect.height > 0;"
+                    + "}";
+    static final String ATTRIBUTE_FUNCTION =
+            "function attribute(el, name) {"
+                    + "  var value = el[name];"
+                    + "  if (value === undefined || value === null || typeof value === 'object' || typeof value === 'function') {"
+                    + "    value = el.getAttribute(name);"
+                    + "  }"
+                    + "  return value === null || value === undefined ? null : String(value);"
+                    + "}";
+    // Finds the element described by {el} or a remote {using, value} locator; null when it is not on the page
+    static final String LOCATE_FUNCTION =
+            "function locate(c) {"
+                    + "  if (c.el) return c.el;"
+                    + "  if (c.using === 'xpath') return document.evaluate(c.value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+                    + "  if (c.using === 'link text' || c.using === 'partial link text') {"
+                    + "    var links = document.getElementsByTagName('a');"
+                    + "    for (var i = 0; i < links.length; i++) {"
+                    + "      var text = (links[i].innerText || '').trim();"
+                    + "      if (c.using === 'link text' ? text === c.value : text.indexOf(c.value) !== -1) return links[i];"
+                    + "    }"
+                    + "    return null;"
+                    + "  }"
+                    + "  if (c.using === 'id') return document.getElementById(c.value);"
+                    + "  if (c.using === 'name') return document.getElementsByName(c.value)[0] || null;"
+                    + "  if (c.using === 'class name') return document.getElementsByClassName(c.value)[0] || null;"
+                    + "  if (c.using === 'tag name') return document.getElementsByTagName(c.value)[0] || null;"
+                    + "  return c.using ? document.querySelector(c.value) : null;"
+                    + "}";
+    private static final String SNAPSHOT_SCRIPT =
+            "var targets = arguments[0], attributeNames = arguments[1], states = [];"
+                    + DISPLAYED_FUNCTION
+                    + ATTRIBUTE_FUNCTION
+                    + LOCATE_FUNCTION
+                    + "for (var i = 0; i < targets.length; i++) {"
+                    + "  var el = locate(targets[i]), attributes = {};"
+                    + "  if (!el) { states.push({found: false}); continue; }"
+                    + "  for (var j = 0; j < attributeNames[i].length; j++) {"
+                    + "    attributes[attributeNames[i][j]] = attribute(el, attributeNames[i][j]);"
+                    + "  }"
+                    + "  states.push({found: true, displayed: displayed(el), text: (el.innerText || '').trim(),"
+                    + "    enabled: !(el.matches && el.matches(':disabled')), selected: !!(el.checked || el.selected),"
+                    + "    attributes: attributes});"
+                    + "}"
+                    + "return {title: document.title, url: window.location.href, elements: states};";
+
+    private final WebDriver driver;
+    private final WebDriverWait wait;
+    private final Map<Object, ElementExpectations> elementExpectations = new LinkedHashMap<>();
+    private String expectedTitle;
+    private String expectedUrl;
+
+    PageStateAssertion(WebDriver driver, WebDriverWait wait) {
+        this.driver = driver;
+        this.wait = wait;
+    }
+
+    /**
+     * Expects the page title to equal the given value.
+     *
+     * @param title the expected page title
+     * @return this batch
+     */
+    public PageStateAssertion title(String title) {
+        this.expectedTitle = title;
+        return this;
+    }
+
+    /**
+     * Expects the current URL to equal the given value.
+     *
+     * @param url the expected URL
+     * @return this batch
+     */
+    public PageStateAssertion url(String url) {
+        this.expectedUrl = url;
+        return this;
+    }
+
+    /**
+     * Expects the element to be displayed.
+     *
+     * @param locator the By locator or WebElement to check
+     * @return this batch
+     */
+    public PageStateAssertion displayed(Object locator) {
+        expectationsFor(locator).displayed = true;
+        return this;
+    }
+
+    /**
+     * Expects the element's trimmed text to equal the given value.
+     *
+     * @param locator the By locator or WebElement to check
+     * @param text    the expected text value
+     * @return this batch
+     */
+    public PageStateAssertion text(Object locator, String text) {
+        expectationsFor(locator).text = text;
+        return this;
+    }
+
+    /**
+     * Expects the element to be enabled.
+     *
+     * @param locator the By locator or WebElement to check
+     * @return this batch
+     */
+    public PageStateAssertion enabled(Object locator) {
+        expectationsFor(locator).enabled = true;
+        return this;
+    }
+
+    /**
+     * Expects the element to be selected (e.g., checkbox or radio button).
+     *
+     * @param locator the By locator or WebElement to check
+     * @return this batch
+     */
+    public PageStateAssertion selected(Object locator) {
+        expectationsFor(locator).selected = true;
+        return this;
+    }
+
+    /**
+     * Expects the element's attribute (or property of the same name) to equal the given value.
+     *
+     * @param locator   the By locator or WebElement to check
+     * @param attribute the attribute name
+     * @param value     the expected attribute value
+     * @return this batch
+     */
+    public PageStateAssertion attribute(Object locator, String attribute, String value) {
+        expectationsFor(locator).attributes.put(attribute, value);
+        return this;
+    }
+
+    /**
+     * Evaluates every expectation, retrying on fresh snapshots until all pass or the default wait expires.
+     *
+     * @throws AssertionError listing every expectation that still failed on the last snapshot
+     */
+    public void verify() {
+        AtomicReference<List<String>> lastFailures = new AtomicReference<>(new ArrayList<>());
+        try (Span ignored = Tracer.start("AssertionHelper.expectPageState.verify", "helper")) {
+            wait.until(d -> {
+                List<String> failures = evaluate();
+                lastFailures.set(failures);
+                return failures.isEmpty() ? Boolean.TRUE : null;
+            });
+        } catch (TimeoutException e) {
+            String message = String.join(System.lineSeparator(), lastFailures.get());
+            logger.error("Page state assertion failed with {} mismatch(es):{}{}", lastFailures.get().size(), System.lineSeparator(), message);
+            AssertionHelper.recordAssertion("expectPageState", false, message);
+            throw new AssertionError(message, e);
+        }
+        logPasses();
+        AssertionHelper.recordAssertion("expectPageState", true, elementExpectations.size() + " element(s) matched");
+    }
+
+    private ElementExpectations expectationsFor(Object locator) {
+        if (!(locator instanceof By) && !(locator instanceof WebElement)) {
+            throw new IllegalArgumentException("Locator must be of type By or WebElement.");
+        }
+        return elementExpectations.computeIfAbsent(locator, ElementExpectations::new);
+    }
+
+    /**
+     * Captures one snapshot and compares it against every expectation.
+     *
+     * @return the failure messages, empty when the page matches
+     */
+    private List<String> evaluate() {
+        List<String> failures = new ArrayList<>();
+        Map<String, Object> snapshot;
+        try {
+            snapshot = scripted() ? captureScripted() : captureCommandByCommand(failures);
+        } catch (StaleElementReferenceException e) {
+            failures.add("Assertion Failed: Element went stale while capturing page state. " + e.getMessage());
+            return failures;
+        }
+
+        if (expectedTitle != null && !expectedTitle.equals(snapshot.get("title"))) {
+            failures.add(mismatch("Page title assertion", expectedTitle, snapshot.get("title")));
+        }
+        if (expectedUrl != null && !expectedUrl.equals(snapshot.get("url"))) {
+            failures.add(mismatch("Current URL assertion", expectedUrl, snapshot.get("url")));
+        }
+
+        List<?> states = (List<?>) snapshot.get("elements");
+        int index = 0;
+        for (ElementExpectations expectations : elementExpectations.values()) {
+            Map<?, ?> state = (Map<?, ?>) states.get(index++);
+            Object locator = expectations.locator;
+            if (state == null) {
+                // Not found by the command-by-command path, already reported
+                continue;
+            }
+            if (!Boolean.TRUE.equals(state.get("found"))) {
+                failures.add("Assertion Failed: Element not found: " + locator);
+                continue;
+            }
+            if (expectations.displayed && !Boolean.TRUE.equals(state.get("displayed"))) {
+                failures.add("Assertion Failed: Element is displayed: " + locator);
+            }
+            if (expectations.enabled && !Boolean.TRUE.equals(state.get("enabled"))) {
+                failures.add("Assertion Failed: Element is enabled: " + locator);
+            }
+            if (expectations.selected && !Boolean.TRUE.equals(state.get("selected"))) {
+                failures.add("Assertion Failed: Element is selected: " + locator);
+            }
+            if (expectations.text != null && !expectations.text.equals(state.get("text"))) {
+                failures.add(mismatch("Element text assertion (" + locator + ")", expectations.text, state.get("text")));
+            }
+            Map<?, ?> attributes = (Map<?, ?>) state.get("attributes");
+            expectations.attributes.forEach((name, value) -> {
+                if (!Objects.equals(value, attributes.get(name))) {
+                    failures.add(mismatch("Element attribute '" + name + "' assertion (" + locator + ")", value, attributes.get(name)));
+                }
+            });
+        }
+        return failures;
+    }
+
+    private boolean scripted() {
+        return driver instanceof JavascriptExecutor && HelperContext.of(driver).scriptedStateChecks();
+    }
+
+    /**
+     * Reads title, URL and every element state in one script call. Standard By locators, including those of
+     * page-level lazy elements, are resolved inside the script; other locators are located first.
+     *
+     * @return the snapshot as a map with "title", "url" and "elements" entries
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> captureScripted() {
+        List<Map<String, Object>> targets = new ArrayList<>();
+        List<List<String>> attributeNames = new ArrayList<>();
+        for (ElementExpectations expectations : elementExpectations.values()) {
+            Map<String, Object> target = new HashMap<>();
+            By by = scriptableLocator(expectations.locator);
+            if (by != null) {
+                By.Remotable.Parameters parameters = ((By.Remotable) by).getRemoteParameters();
+                target.put("using", parameters.using());
+                target.put("value", String.valueOf(parameters.value()));
+            } else {
+                try {
+                    target.put("el", resolve(expectations.locator));
+                } catch (NoSuchElementException e) {
+                    // Leaves the target empty, so the script reports it as not found
+                }
+            }
+            targets.add(target);
+            attributeNames.add(new ArrayList<>(expectations.attributes.keySet()));
+        }
+        return (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, targets, attributeNames);
+    }
+
+    /**
+     * Reads title, URL and element states with one WebDriver call per value, for drivers without scripted checks.
+     *
+     * @param failures receives a message for every element that is not found
+     * @return the snapshot, with a null state for elements that were not found
+     */
+    private Map<String, Object> captureCommandByCommand(List<String> failures) {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("title", expectedTitle != null ? driver.getTitle() : null);
+        snapshot.put("url", expectedUrl != null ? driver.getCurrentUrl() : null);
+        List<Map<String, Object>> states = new ArrayList<>();
+        for (ElementExpectations expectations : elementExpectations.values()) {
+            WebElement element;
+            try {
+                element = resolve(expectations.locator);
+            } catch (NoSuchElementException e) {
+                failures.add("Assertion Failed: Element not found: " + expectations.locator);
+                states.add(null);
+                continue;
+            }
+            Map<String, Object> state = new HashMap<>();
+            state.put("found", true);
+            state.put("displayed", expectations.displayed && element.isDisplayed());
+            state.put("enabled", expectations.enabled && element.isEnabled());
+            state.put("selected", expectations.selected && element.isSelected());
+            state.put("text", expectations.text != null ? element.getText().trim() : null);
+            Map<String, Object> attributes = new HashMap<>();
+            expectations.attributes.keySet().forEach(name -> attributes.put(name, element.getAttribute(name)));
+            state.put("attributes", attributes);
+            states.add(state);
+        }
+        snapshot.put("elements", states);
+        return snapshot;
+    }
+
+    /**
+     * Returns the locator the snapshot script can resolve itself: a standard By, or the By of a lazy element that is
+     * looked up from the page (not from another element).
+     *
+     * @return the locator, or null if the element has to be located through the driver
+     */
+    private static By scriptableLocator(Object locator) {
+        By by = null;
+        if (locator instanceof By) {
+            by = (By) locator;
+        } else if (locator instanceof LazyElement && ((LazyElement) locator).getSearchContext() instanceof WebDriver) {
+            by = ((LazyElement) locator).getLocator();
+        }
+        return by instanceof By.Remotable ? by : null;
+    }
+
+    private WebElement resolve(Object locator) {
+        if (locator instanceof By) {
+            return driver.findElement((By) locator);
+        } else if (locator instanceof WrapsElement) {
+            return ((WrapsElement) locator).getWrappedElement();
+        }
+        return (WebElement) locator;
+    }
+
+    private static String mismatch(String description, Object expected, Object actual) {
+        return String.format("Assertion Failed: %s - Expected: '%s', Actual: '%s'", description, expected, actual);
+    }
+
+    private void logPasses() {
+        if (expectedTitle != null) {
+            logger.info("Assertion Passed: Page title assertion - Expected: '{}'", expectedTitle);
+        }
+        if (expectedUrl != null) {
+            logger.info("Assertion Passed: Current URL assertion - Expected: '{}'", expectedUrl);
+        }
+        for (ElementExpectations expectations : elementExpectations.values()) {
+            if (expectations.displayed) {
+                logger.info("Assertion Passed: Element is displayed: {}", expectations.locator);
+            }
+            if (expectations.enabled) {
+                logger.info("Assertion Passed: Element is enabled: {}", expectations.locator);
+            }
+            if (expectations.selected) {
+                logger.info("Assertion Passed: Element is selected: {}", expectations.locator);
+            }
+            if (expectations.text != null) {
+                logger.info("Assertion Passed: Element text assertion ({}) - Expected: '{}'", expectations.locator, expectations.text);
+            }
+            expectations.attributes.forEach((name, value) ->
+                    logger.info("Assertion Passed: Element attribute '{}' assertion ({}) - Expected: '{}'", name, expectations.locator, value));
+        }
+    }
+
+    private static final class ElementExpectations {
+        private final Object locator;
+        private final Map<String, String> attributes = new LinkedHashMap<>();
+        private boolean displayed;
+        private boolean enabled;
+        private boolean selected;
+        private String text;
+
+        private ElementExpectations(Object locator) {
+            this.locator = locator;
+        }
+    }
+}
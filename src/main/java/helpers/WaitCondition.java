@@ -0,0 +1,179 @@
+package helpers;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One branch of a composite wait ({@link WaitHelper#waitForAny} / {@link WaitHelper#waitForAll}).
+ * <p>
+ * Element conditions take a By locator or a WebElement. Use a By locator for elements that may not exist yet (an
+ * error banner, for example): it is looked up on every check, whereas a WebElement must already be on the page.
+ */
+public final class WaitCondition {
+    private static final StackWalker stackWalker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private final String kind;
+    private final Object locator;
+    private final String expected;
+    private final String extra;
+    // Simple name of the class that built the condition, usually a page object
+    private final String owner;
+    private String name;
+
+    private WaitCondition(String kind, Object locator, String expected, String extra, String description) {
+        if (locator != null && !(locator instanceof By) && !(locator instanceof WebElement)) {
+            throw new IllegalArgumentException("Locator must be of type By or WebElement.");
+        }
+        this.kind = kind;
+        this.locator = locator;
+        this.expected = expected;
+        this.extra = extra;
+        this.name = description;
+        this.owner = stackWalker.walk(frames -> frames.map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(type -> type != WaitCondition.class)
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(""));
+    }
+
+    public static WaitCondition visible(Object locator) {
+        return new WaitCondition("visible", locator, null, null, "visibility of " + locator);
+    }
+
+    public static WaitCondition invisible(Object locator) {
+        return new WaitCondition("invisible", locator, null, null, "invisibility of " + locator);
+    }
+
+    public static WaitCondition clickable(Object locator) {
+        return new WaitCondition("clickable", locator, null, null, "clickability of " + locator);
+    }
+
+    public static WaitCondition text(Object locator, String text) {
+        return new WaitCondition("text", locator, text, null, "text '" + text + "' in " + locator);
+    }
+
+    public static WaitCondition attribute(Object locator, String attribute, String value) {
+        return new WaitCondition("attribute", locator, attribute, value, attribute + "='" + value + "' on " + locator);
+    }
+
+    public static WaitCondition selected(Object locator) {
+        return new WaitCondition("selected", locator, null, null, "selection of " + locator);
+    }
+
+    public static WaitCondition titleContains(String text) {
+        return new WaitCondition("title", null, text, null, "title containing '" + text + "'");
+    }
+
+    public static WaitCondition urlContains(String text) {
+        return new WaitCondition("url", null, text, null, "URL containing '" + text + "'");
+    }
+
+    /**
+     * Gives the condition a short name for logs, traces and {@link WaitResult#getResolveTimes()}.
+     *
+     * @param name the name, e.g. "inventory page"
+     * @return this condition
+     */
+    public WaitCondition named(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the name qualified by the class that built the condition, e.g. "LoginPO.login error", so same-named
+     * conditions of different page objects stay apart in {@link WaitResult#getResolveTimes()} and traces.
+     *
+     * @return the qualified name
+     */
+    public String getQualifiedName() {
+        return owner.isEmpty() ? name : owner + "." + name;
+    }
+
+    /**
+     * Returns whether the condition can be checked by the in-page observer: a WebElement, a standard By locator
+     * (CSS, XPath or link text) or no element at all.
+     */
+    boolean isScriptable() {
+        return !(locator instanceof By) || locator instanceof By.Remotable;
+    }
+
+    boolean usesLocator() {
+        return locator instanceof By;
+    }
+
+    /**
+     * Describes the condition for the composite observer script.
+     */
+    Map<String, Object> toScriptArgument() {
+        Map<String, Object> argument = new LinkedHashMap<>();
+        argument.put("kind", kind);
+        argument.put("expected", expected);
+        argument.put("extra", extra);
+        if (locator instanceof WebElement) {
+            argument.put("el", locator);
+        } else if (locator instanceof By) {
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            argument.put("using", parameters.using());
+            argument.put("value", String.valueOf(parameters.value()));
+        }
+        return argument;
+    }
+
+    /**
+     * Checks the condition once through the driver, for the polling strategy.
+     */
+    boolean test(WebDriver driver) {
+        try {
+            if ("title".equals(kind)) {
+                return driver.getTitle().contains(expected);
+            } else if ("url".equals(kind)) {
+                return driver.getCurrentUrl().contains(expected);
+            }
+            WebElement element = locate(driver);
+            if (element == null) {
+                return "invisible".equals(kind);
+            }
+            switch (kind) {
+                case "visible":
+                    return element.isDisplayed();
+                case "invisible":
+                    return !element.isDisplayed();
+                case "clickable":
+                    return element.isDisplayed() && element.isEnabled();
+                case "text":
+                    return element.getText().contains(expected);
+                case "attribute":
+                    return extra.equals(element.getAttribute(expected));
+                case "selected":
+                    return element.isSelected();
+                default:
+                    return false;
+            }
+        } catch (StaleElementReferenceException | NoSuchElementException e) {
+            return "invisible".equals(kind);
+        }
+    }
+
+    private WebElement locate(WebDriver driver) {
+        if (locator instanceof WebElement) {
+            return (WebElement) locator;
+        }
+        List<WebElement> found = driver.findElements((By) locator);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
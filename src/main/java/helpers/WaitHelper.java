@@ -3,17 +3,116 @@ package helpers;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import utilities.config.PropertyFileReader;
+import utilities.jfr.WaitEvent;
+import utilities.tracing.Span;
+import utilities.tracing.Tracer;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class WaitHelper {
     private static final Logger logger = LogManager.getLogger(WaitHelper.class);
+
+    // Evaluates one condition kind in the page; a missing element only satisfies 'invisible'
+    private static final String CONDITION_FUNCTION =
+            "function satisfied(el, kind, expected, extra) {"
+                    + "  if (kind === 'title') return document.title.indexOf(expected) !== -1;"
+                    + "  if (kind === 'url') return location.href.indexOf(expected) !== -1;"
+                    + "  if (!el) return kind === 'invisible';"
+                    + "  switch (kind) {"
+                    + "    case 'visible': return displayed(el);"
+                    + "    case 'invisible': return !displayed(el);"
+                    + "    case 'clickable': return displayed(el) && !(el.matches && el.matches(':disabled'));"
+                    + "    case 'text': return el.isConnected && (el.innerText || el.textContent || '').indexOf(expected) !== -1;"
+                    + "    case 'attribute': return attribute(el, expected) === extra;"
+                    + "    case 'selected': return !!(el.checked || el.selected);"
+                    + "  }"
+                    + "  return false;"
+                    + "}";
+
+    // Resolves as soon as a DOM mutation or user event makes the condition true, or when the timeout passes
+    private static final String OBSERVER_SCRIPT =
+            "var el = arguments[0], kind = arguments[1], expected = arguments[2], extra = arguments[3], timeout = arguments[4];"
+                    + "var done = arguments[arguments.length - 1];"
+                    + PageStateAssertion.DISPLAYED_FUNCTION
+                    + PageStateAssertion.ATTRIBUTE_FUNCTION
+                    + CONDITION_FUNCTION
+                    + "var start = performance.now(), mutations = 0, finished = false, observer, timer, interval;"
+                    + "var events = ['input', 'change', 'click', 'transitionend', 'animationend'];"
+                    + "function check() { return satisfied(el, kind, expected, extra); }"
+                    + "function onChange() { if (!finished && check()) finish(true); }"
+                    + "function finish(matched) {"
+                    + "  finished = true;"
+                    + "  if (observer) observer.disconnect();"
+                    + "  clearTimeout(timer);"
+                    + "  clearInterval(interval);"
+                    + "  events.forEach(function(name) { document.removeEventListener(name, onChange, true); });"
+                    + "  done({matched: matched, latency: performance.now() - start, mutations: mutations});"
+                    + "}"
+                    + "if (check()) { finish(true); return; }"
+                    + "observer = new MutationObserver(function(records) { mutations += records.length; onChange(); });"
+                    + "observer.observe(document.documentElement, {subtree: true, childList: true, attributes: true, characterData: true});"
+                    + "events.forEach(function(name) { document.addEventListener(name, onChange, true); });"
+                    // Property changes (e.g. el.checked = true) do not mutate the DOM; re-check them in-page
+                    + "interval = setInterval(onChange, 100);"
+                    + "timer = setTimeout(function() { if (!finished) finish(check()); }, timeout);";
+
+    // Observes several conditions at once; each check evaluates all of them and records when each first held
+    private static final String COMPOSITE_OBSERVER_SCRIPT =
+            "var conditions = arguments[0], all = arguments[1], timeout = arguments[2];"
+                    + "var done = arguments[arguments.length - 1];"
+                    + PageStateAssertion.DISPLAYED_FUNCTION
+                    + PageStateAssertion.ATTRIBUTE_FUNCTION
+                    + CONDITION_FUNCTION
+                    + PageStateAssertion.LOCATE_FUNCTION
+                    + "var start = performance.now(), mutations = 0, finished = false, observer, timer, interval;"
+                    + "var resolved = conditions.map(function() { return null; });"
+                    + "var events = ['input', 'change', 'click', 'transitionend', 'animationend'];"
+                    + "function check() {"
+                    + "  var first = -1, count = 0;"
+                    + "  conditions.forEach(function(c, i) {"
+                    + "    var ok = false;"
+                    + "    try { ok = satisfied(locate(c), c.kind, c.expected, c.extra); } catch (e) { ok = false; }"
+                    + "    if (ok) { count++; if (first < 0) first = i; if (resolved[i] === null) resolved[i] = performance.now() - start; }"
+                    + "  });"
+                    + "  return all ? count === conditions.length : first >= 0;"
+                    + "}"
+                    + "function onChange() { if (!finished && check()) finish(true); }"
+                    + "function finish(matched) {"
+                    + "  finished = true;"
+                    + "  if (observer) observer.disconnect();"
+                    + "  clearTimeout(timer);"
+                    + "  clearInterval(interval);"
+                    + "  events.forEach(function(name) { document.removeEventListener(name, onChange, true); });"
+                    + "  done({matched: matched, resolved: resolved, latency: performance.now() - start, mutations: mutations});"
+                    + "}"
+                    + "if (check()) { finish(true); return; }"
+                    + "observer = new MutationObserver(function(records) { mutations += records.length; onChange(); });"
+                    + "observer.observe(document.documentElement, {subtree: true, childList: true, attributes: true, characterData: true});"
+                    + "events.forEach(function(name) { document.addEventListener(name, onChange, true); });"
+                    + "interval = setInterval(onChange, 100);"
+                    + "timer = setTimeout(function() { if (!finished) finish(check()); }, timeout);";
+
     private final WebDriverWait wait;
     private final WebDriver driver;
+    private final Duration timeout;
+    private final boolean observerStrategy;
+    private boolean observerUnavailable;
+    private boolean scriptTimeoutChecked;
 
     /**
      * Constructs a WaitHelper with a specified timeout.
@@ -23,7 +122,21 @@ public class WaitHelper {
      */
     public WaitHelper(WebDriver driver, long timeoutInSeconds) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
+        this.timeout = Duration.ofSeconds(timeoutInSeconds);
+        this.wait = new WebDriverWait(driver, timeout);
+        this.observerStrategy = "observer".equalsIgnoreCase(PropertyFileReader.getInstance().getWaitStrategy());
+    }
+
+    /**
+     * Constructs a WaitHelper that reuses the default-timeout wait owned by the session's HelperContext.
+     *
+     * @param context the shared HelperContext of the driver session
+     */
+    public WaitHelper(HelperContext context) {
+        this.driver = context.getDriver();
+        this.timeout = Duration.ofSeconds(context.config().getDefaultWaitDuration());
+        this.wait = context.getWait();
+        this.observerStrategy = "observer".equalsIgnoreCase(context.config().getWaitStrategy());
     }
 
     /**
@@ -52,9 +165,9 @@ public class WaitHelper {
      */
     public WebElement waitForVisibilityOfElement(Object locator) {
         WebElement element = resolveLocator(locator);
-        WebElement visibleElement = wait.until(ExpectedConditions.visibilityOf(element));
+        await(ExpectedConditions.visibilityOf(element), "visible", element, null, null);
         logger.info("Element is visible: {}", element);
-        return visibleElement;
+        return element;
     }
 
     /**
@@ -64,7 +177,7 @@ public class WaitHelper {
      */
     public void waitForElementToBeClickable(Object locator) {
         WebElement element = resolveLocator(locator);
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        await(ExpectedConditions.elementToBeClickable(element), "clickable", element, null, null);
         logger.info("Element is clickable: {}", element);
     }
 
@@ -76,7 +189,7 @@ public class WaitHelper {
      */
     public void waitForTextToBePresentInElement(Object locator, String elementText) {
         WebElement element = resolveLocator(locator);
-        wait.until(ExpectedConditions.textToBePresentInElement(element, elementText));
+        await(ExpectedConditions.textToBePresentInElement(element, elementText), "text", element, elementText, null);
         logger.info("Text '{}' is present in element: {}", elementText, element);
     }
 
@@ -86,7 +199,7 @@ public class WaitHelper {
      * @param titleText the text to check for in the page title
      */
     public void waitForTitleToContain(String titleText) {
-        wait.until(ExpectedConditions.titleContains(titleText));
+        await(ExpectedConditions.titleContains(titleText), "title", null, titleText, null);
         logger.info("Title contains text: '{}'", titleText);
     }
 
@@ -97,7 +210,7 @@ public class WaitHelper {
      */
     public void waitForInvisibilityOfElement(Object locator) {
         WebElement element = resolveLocator(locator);
-        wait.until(ExpectedConditions.invisibilityOf(element));
+        await(ExpectedConditions.invisibilityOf(element), "invisible", element, null, null);
         logger.info("Element is invisible: {}", element);
     }
 
@@ -110,7 +223,7 @@ public class WaitHelper {
      */
     public void waitForAttributeToBe(Object locator, String attribute, String value) {
         WebElement element = resolveLocator(locator);
-        wait.until(driver -> element.getAttribute(attribute).equals(value));
+        await(d -> value.equals(element.getAttribute(attribute)), "attribute", element, attribute, value);
         logger.info("Element '{}' has attribute '{}' with value '{}'", element, attribute, value);
     }
 
@@ -121,7 +234,240 @@ public class WaitHelper {
      */
     public void waitForElementToBeSelected(Object locator) {
         WebElement element = resolveLocator(locator);
-        wait.until(ExpectedConditions.elementToBeSelected(element));
+        await(ExpectedConditions.elementToBeSelected(element), "selected", element, null, null);
         logger.info("Element is selected: {}", element);
     }
-}
\ No newline at end of file
+
+    /**
+     * Waits until any of the conditions holds, checking all of them together on every check, so a wrong branch does
+     * not burn its own timeout.
+     *
+     * @param conditions the branches to wait for, e.g. the inventory title and the login error banner
+     * @return which condition matched first, and when each branch resolved
+     * @throws TimeoutException if none held within the timeout
+     */
+    public WaitResult waitForAny(WaitCondition... conditions) {
+        WaitResult result = awaitComposite(false, conditions);
+        logger.info("Wait for any of {} conditions: {}", conditions.length, result);
+        return result;
+    }
+
+    /**
+     * Waits until all the conditions hold at the same time, checking all of them together on every check.
+     *
+     * @param conditions the conditions to wait for
+     * @return the condition that resolved last, and when each resolved
+     * @throws TimeoutException if they did not all hold within the timeout
+     */
+    public WaitResult waitForAll(WaitCondition... conditions) {
+        WaitResult result = awaitComposite(true, conditions);
+        logger.info("Wait for all of {} conditions: {}", conditions.length, result);
+        return result;
+    }
+
+    private WaitResult awaitComposite(boolean all, WaitCondition... conditions) {
+        if (conditions.length == 0) {
+            throw new IllegalArgumentException("At least one condition is required.");
+        }
+        List<WaitCondition> branches = List.of(conditions);
+        String description = (all ? "all of " : "any of ") + branches;
+        WaitEvent event = new WaitEvent();
+        event.begin();
+        try (Span span = Tracer.start("WaitHelper.await(" + (all ? "all" : "any") + ")", "helper")) {
+            span.attribute("condition", description);
+            WaitResult result = awaitBranches(all, branches, description, event);
+            span.attribute("matched", result.getMatched().getQualifiedName());
+            result.getResolveTimes().forEach((name, millis) -> span.attribute("resolved." + name, millis));
+            event.matched = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.helper = "WaitHelper";
+                event.condition = description;
+                event.commit();
+            }
+        }
+    }
+
+    private WaitResult awaitBranches(boolean all, List<WaitCondition> branches, String description, WaitEvent event) {
+        long start = System.nanoTime();
+        if (observerStrategy && !observerUnavailable && driver instanceof JavascriptExecutor && HelperContext.of(driver).scriptedStateChecks()
+                && branches.stream().allMatch(WaitCondition::isScriptable)) {
+            event.strategy = "observer";
+            event.pollCount = 1;
+            try {
+                ensureScriptTimeout();
+                List<Map<String, Object>> arguments = new ArrayList<>();
+                branches.forEach(condition -> arguments.add(condition.toScriptArgument()));
+                Map<?, ?> result = (Map<?, ?>) ((JavascriptExecutor) driver).executeAsyncScript(COMPOSITE_OBSERVER_SCRIPT, arguments, all, timeout.toMillis());
+                Double[] resolved = new Double[branches.size()];
+                List<?> times = (List<?>) result.get("resolved");
+                for (int i = 0; i < resolved.length; i++) {
+                    resolved[i] = times.get(i) == null ? null : ((Number) times.get(i)).doubleValue();
+                }
+                if (!Boolean.TRUE.equals(result.get("matched"))) {
+                    throw compositeTimeout(description, branches, resolved, "DOM observer");
+                }
+                return new WaitResult(branches, matchedIndex(all, resolved), resolved, elapsedMillis(start), "observer");
+            } catch (UnsupportedCommandException | UnsupportedOperationException e) {
+                observerUnavailable = true;
+                logger.warn("Asynchronous scripts are not supported by this driver; falling back to polling waits.");
+            } catch (ScriptTimeoutException e) {
+                throw new TimeoutException("Expected condition failed: waiting for " + description + " (script timeout)", e);
+            } catch (JavascriptException | StaleElementReferenceException e) {
+                logger.debug("Composite DOM observer aborted ({}); polling instead.", e.getMessage());
+            }
+        }
+
+        event.strategy = "polling";
+        Double[] resolved = new Double[branches.size()];
+        // Locators are looked up on every poll; without this each missing element would sit out the implicit wait
+        Duration implicitWait = branches.stream().anyMatch(WaitCondition::usesLocator) ? driver.manage().timeouts().getImplicitWaitTimeout() : Duration.ZERO;
+        if (!implicitWait.isZero()) {
+            driver.manage().timeouts().implicitlyWait(Duration.ZERO);
+        }
+        try {
+            wait.until(d -> {
+                event.pollCount++;
+                int satisfied = 0;
+                for (int i = 0; i < branches.size(); i++) {
+                    if (branches.get(i).test(d)) {
+                        satisfied++;
+                        if (resolved[i] == null) {
+                            resolved[i] = elapsedMillis(start);
+                        }
+                    }
+                }
+                return all ? satisfied == branches.size() : satisfied > 0;
+            });
+        } catch (TimeoutException e) {
+            throw compositeTimeout(description, branches, resolved, "polling");
+        } finally {
+            if (!implicitWait.isZero()) {
+                driver.manage().timeouts().implicitlyWait(implicitWait);
+            }
+        }
+        return new WaitResult(branches, matchedIndex(all, resolved), resolved, elapsedMillis(start), "polling");
+    }
+
+    /**
+     * For waitForAny the earliest resolved branch, for waitForAll the latest.
+     */
+    private static int matchedIndex(boolean all, Double[] resolved) {
+        int matched = -1;
+        for (int i = 0; i < resolved.length; i++) {
+            if (resolved[i] != null && (matched < 0 || (all ? resolved[i] > resolved[matched] : resolved[i] < resolved[matched]))) {
+                matched = i;
+            }
+        }
+        return Math.max(matched, 0);
+    }
+
+    private TimeoutException compositeTimeout(String description, List<WaitCondition> branches, Double[] resolved, String strategy) {
+        StringBuilder seen = new StringBuilder();
+        for (int i = 0; i < branches.size(); i++) {
+            if (resolved[i] != null) {
+                seen.append(seen.length() == 0 ? "" : ", ").append(branches.get(i).getName());
+            }
+        }
+        return new TimeoutException(String.format("Expected condition failed: waiting for %s (tried for %d second(s) with %s; held at some point: %s)",
+                description, timeout.getSeconds(), strategy, seen.length() == 0 ? "none" : seen));
+    }
+
+    /**
+     * Waits for a condition, using an in-page observer when enabled and available and polling otherwise.
+     *
+     * @param pollingCondition the condition evaluated by WebDriverWait when polling
+     * @param kind             the in-page condition evaluated by the observer script
+     * @param element          the element the condition applies to, or null for page-level conditions
+     * @param expected         the expected text or attribute name, if any
+     * @param extra            the expected attribute value, if any
+     */
+    private void await(ExpectedCondition<?> pollingCondition, String kind, WebElement element, String expected, String extra) {
+        WaitEvent event = new WaitEvent();
+        event.begin();
+        try (Span span = Tracer.start("WaitHelper.await(" + kind + ")", "helper")) {
+            span.attribute("condition", pollingCondition);
+            awaitCondition(pollingCondition, kind, element, expected, extra, event);
+            event.matched = true;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.helper = "WaitHelper";
+                event.condition = String.valueOf(pollingCondition);
+                event.commit();
+            }
+        }
+    }
+
+    private void awaitCondition(ExpectedCondition<?> pollingCondition, String kind, WebElement element, String expected, String extra,
+                                WaitEvent event) {
+        long start = System.nanoTime();
+        if (observerStrategy && !observerUnavailable && driver instanceof JavascriptExecutor && HelperContext.of(driver).scriptedStateChecks()) {
+            event.strategy = "observer";
+            event.pollCount = 1;
+            try {
+                Map<?, ?> result = observe(kind, element, expected, extra);
+                if (!Boolean.TRUE.equals(result.get("matched"))) {
+                    throw new TimeoutException(String.format("Expected condition failed: waiting for %s (tried for %d second(s) with DOM observer)",
+                            pollingCondition, timeout.getSeconds()));
+                }
+                logger.debug("Wait for {} resolved by DOM observer in {} ms ({} ms in page, {} mutation(s), 1 round trip)",
+                        pollingCondition, elapsedMillis(start), result.get("latency"), result.get("mutations"));
+                return;
+            } catch (StaleElementReferenceException e) {
+                if ("invisible".equals(kind)) {
+                    logger.debug("Wait for {} resolved: element is no longer attached", pollingCondition);
+                    return;
+                }
+                logger.debug("Element went stale before the DOM observer started; polling instead.");
+            } catch (UnsupportedCommandException | UnsupportedOperationException e) {
+                observerUnavailable = true;
+                logger.warn("Asynchronous scripts are not supported by this driver; falling back to polling waits.");
+            } catch (ScriptTimeoutException e) {
+                throw new TimeoutException("Expected condition failed: waiting for " + pollingCondition + " (script timeout)", e);
+            } catch (JavascriptException e) {
+                // Typically the page navigated while the observer was installed
+                logger.debug("DOM observer aborted ({}); polling instead.", e.getMessage());
+            }
+        }
+
+        event.strategy = "polling";
+        wait.until(d -> {
+            event.pollCount++;
+            return pollingCondition.apply(d);
+        });
+        logger.debug("Wait for {} resolved by polling in {} ms ({} poll(s))", pollingCondition, elapsedMillis(start), event.pollCount);
+    }
+
+    /**
+     * Installs the observer script and blocks until it reports a match or the timeout passes.
+     *
+     * @return the script result with "matched", "latency" and "mutations" entries
+     */
+    private Map<?, ?> observe(String kind, WebElement element, String expected, String extra) {
+        ensureScriptTimeout();
+        return (Map<?, ?>) ((JavascriptExecutor) driver).executeAsyncScript(OBSERVER_SCRIPT, element, kind, expected, extra, timeout.toMillis());
+    }
+
+    /**
+     * Makes sure the session's script timeout outlasts this helper's wait timeout; checked once per helper.
+     */
+    private void ensureScriptTimeout() {
+        if (scriptTimeoutChecked) {
+            return;
+        }
+        Duration required = timeout.plusSeconds(5);
+        Duration current = driver.manage().timeouts().getScriptTimeout();
+        if (current == null || current.compareTo(required) < 0) {
+            driver.manage().timeouts().scriptTimeout(required);
+            logger.debug("Script timeout raised to {} seconds for DOM observer waits.", required.getSeconds());
+        }
+        scriptTimeoutChecked = true;
+    }
+
+    private static double elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,88 @@
+package helpers;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of a composite wait: which condition matched and how long each branch took to resolve.
+ */
+public final class WaitResult {
+    private final List<WaitCondition> conditions;
+    private final int matchedIndex;
+    private final Double[] resolvedMillis;
+    private final double elapsedMillis;
+    private final String strategy;
+
+    WaitResult(List<WaitCondition> conditions, int matchedIndex, Double[] resolvedMillis, double elapsedMillis, String strategy) {
+        this.conditions = conditions;
+        this.matchedIndex = matchedIndex;
+        this.resolvedMillis = resolvedMillis;
+        this.elapsedMillis = elapsedMillis;
+        this.strategy = strategy;
+    }
+
+    /**
+     * Returns the condition that ended the wait: the first one satisfied for waitForAny, the last one to resolve for
+     * waitForAll.
+     *
+     * @return the matched condition
+     */
+    public WaitCondition getMatched() {
+        return conditions.get(matchedIndex);
+    }
+
+    public int getMatchedIndex() {
+        return matchedIndex;
+    }
+
+    /**
+     * Returns whether the given condition ended the wait.
+     *
+     * @param condition one of the conditions passed to the wait
+     * @return true if it matched
+     */
+    public boolean matched(WaitCondition condition) {
+        return getMatched() == condition;
+    }
+
+    /**
+     * Returns, per condition, the milliseconds after which it was first seen satisfied, or null if it never was. Keys
+     * are {@link WaitCondition#getQualifiedName()}; a key used by more than one branch gets the branch number appended,
+     * e.g. "LoginPO.login error #2", so no branch is dropped.
+     *
+     * @return the resolve time of every branch, in the order the conditions were given
+     */
+    public Map<String, Double> getResolveTimes() {
+        Map<String, Double> times = new LinkedHashMap<>();
+        for (int i = 0; i < conditions.size(); i++) {
+            String key = conditions.get(i).getQualifiedName();
+            times.put(times.containsKey(key) ? key + " #" + (i + 1) : key, resolvedMillis[i]);
+        }
+        return Collections.unmodifiableMap(times);
+    }
+
+    public double getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Returns how the wait was evaluated: "observer" (in-page) or "polling".
+     *
+     * @return the wait strategy used
+     */
+    public String getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder branches = new StringBuilder();
+        for (int i = 0; i < conditions.size(); i++) {
+            branches.append(i == 0 ? "" : ", ").append(conditions.get(i).getName()).append(": ")
+                    .append(resolvedMillis[i] == null ? "unresolved" : String.format("%.0f ms", resolvedMillis[i]));
+        }
+        return String.format("'%s' matched after %.0f ms by %s [%s]", getMatched().getName(), elapsedMillis, strategy, branches);
+    }
+}
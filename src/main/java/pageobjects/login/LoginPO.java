@@ -1,18 +1,26 @@
 package pageobjects.login;
 
 import helpers.AssertionHelper;
+import helpers.FillStrategy;
 import helpers.GeneralHelper;
+import helpers.HelperContext;
+import helpers.WaitCondition;
+import helpers.WaitHelper;
+import helpers.WaitResult;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import utilities.config.PropertyFileReader;
+import utilities.pagefactory.GeneratedPage;
 
+@GeneratedPage
 public class LoginPO {
     private final AssertionHelper hardAssert;
+    private final WaitHelper waits;
     WebDriver driver;
     GeneralHelper selenium;
-    private static final PropertyFileReader config = new PropertyFileReader();
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final FillStrategy fill = FillStrategy.forPage(LoginPO.class);
     // Elements
     @FindBy (id = "user-name")
     WebElement usernameInput;
@@ -20,31 +28,63 @@ public class LoginPO {
     WebElement passwordInput;
     @FindBy (id = "login-button")
     WebElement loginButton;
+    @FindBy (css = "h3[data-test='error']")
+    WebElement errorMessage;
     public LoginPO(WebDriver driver) {
-        PageFactory.initElements(driver, this);
+        LoginPOElements.bind(this, driver);
         this.driver = driver;
-        this.selenium = new GeneralHelper(driver);
-        this.hardAssert = new AssertionHelper(driver);
+        HelperContext helpers = HelperContext.of(driver);
+        this.selenium = helpers.general();
+        this.hardAssert = helpers.assertion();
+        this.waits = helpers.waits();
     }
     public void enterUsername(String username){
-        selenium.fillText(usernameInput, username);
+        selenium.fillText(usernameInput, username, fill);
     }
 
     public void enterPassword(String password) {
-        selenium.fillText(passwordInput, password);
+        selenium.fillText(passwordInput, password, fill);
     }
     public void clickLoginButton() {
         selenium.click(loginButton);
     }
+    public void login(String username, String password) {
+        selenium.batch("login")
+                .fillStrategy(fill)
+                .type(usernameInput, username)
+                .type(passwordInput, password)
+                .click(loginButton)
+                .perform();
+    }
+    /**
+     * Waits for whichever comes first after submitting the form: the inventory page or the login error banner.
+     *
+     * @return true if the login reached the inventory page
+     */
+    public boolean waitForLoginOutcome() {
+        WaitResult outcome = waits.waitForAny(
+                WaitCondition.urlContains(config.getProperty("inventoryPageUrl")).named("inventory page"),
+                WaitCondition.visible(LoginPOElements.ERROR_MESSAGE).named("login error"));
+        return outcome.getMatchedIndex() == 0;
+    }
     public void verifyOpenLoginPage() {
-        hardAssert.assertPageTitle(config.getProperty("loginPageTitle"));
-        hardAssert.assertCurrentUrl(config.getProperty("homePageUrl"));
-        hardAssert.assertElementDisplayed(usernameInput);
-        hardAssert.assertElementDisplayed(passwordInput);
-        hardAssert.assertElementDisplayed(loginButton);
+        hardAssert.expectPageState()
+                .title(config.getProperty("loginPageTitle"))
+                .url(config.getProperty("homePageUrl"))
+                .displayed(usernameInput)
+                .displayed(passwordInput)
+                .displayed(loginButton)
+                .verify();
     }
     public void verifyLoginSuccessful(){
-        hardAssert.assertPageTitle(config.getProperty("inventoryPageTitle"));
-        hardAssert.assertCurrentUrl(config.getProperty("inventoryPageUrl"));
+        hardAssert.expectPageState()
+                .title(config.getProperty("inventoryPageTitle"))
+                .url(config.getProperty("inventoryPageUrl"))
+                .verify();
+    }
+    public void verifyLoginError(String expectedMessage) {
+        hardAssert.expectPageState()
+                .text(errorMessage, expectedMessage)
+                .verify();
     }
 }
@@ -0,0 +1,346 @@
+package utilities.concurrency;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import utilities.config.PropertyFileReader;
+import utilities.drivermanager.BrowserProcesses;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides how many scenarios run at once. Scenarios are started by a parallel TestNG DataProvider; each one passes
+ * through {@link #acquire()} in {@code Hooks.setUp} and {@link #release()} in {@code Hooks.tearDown}. A slot stands
+ * for one browser: helper threads that open their own browser for a scenario take an extra slot with
+ * {@link #acquireForWorker()}.
+ * <p>
+ * With {@code concurrencyMode=adaptive} the limit starts at half of what the CPU cores and available memory allow and
+ * is adjusted every {@code concurrencyIntervalMs} in additive-increase/multiplicative-decrease fashion. It is cut by
+ * {@code concurrencyDecreaseFactor} when the machine is overloaded: steps run slower than their own recent runs by
+ * more than {@code stepLatencyTolerance} (median over the interval), the 1-minute load average per core exceeds
+ * {@code maxLoadPerCore}, or available memory ({@code /proc/meminfo}) drops below {@code minFreeMemoryMb}. It grows by one when scenarios are
+ * waiting, none of these signals fire and there is memory for one more browser, measured from the browser processes'
+ * resident memory in {@code /proc}. Every decision is appended to {@code target/concurrency-timeseries.jsonl}.
+ * With {@code concurrencyMode=fixed} the limit stays at {@code maxParallelScenarios}.
+ */
+public final class ConcurrencyController {
+    private static final Logger logger = LogManager.getLogger(ConcurrencyController.class);
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final Path TIME_SERIES = Paths.get("target", "concurrency-timeseries.jsonl");
+    private static final int MIN_STEPS_PER_INTERVAL = 5;
+    // Each step is compared with the median of its own last runs, so a change in the mix of steps is not a slowdown
+    private static final int STEP_BASELINE_RUNS = 5;
+    // The load average trails the real load by about a minute, so give a decrease time to show before the next one
+    private static final int DECREASE_COOLDOWN_INTERVALS = 3;
+    private static final long MB = 1024 * 1024;
+
+    private static final Object lock = new Object();
+    private static final Map<String, Deque<Long>> recentStepNanos = new ConcurrentHashMap<>();
+    private static final List<Double> stepSlowdowns = Collections.synchronizedList(new ArrayList<>());
+    private static final AtomicLong waitNanos = new AtomicLong();
+    private static final AtomicLong waits = new AtomicLong();
+    private static final AtomicLong increases = new AtomicLong();
+    private static final AtomicLong decreases = new AtomicLong();
+    private static final long startMillis = System.currentTimeMillis();
+    private static final int cores = Runtime.getRuntime().availableProcessors();
+
+    // Guarded by lock
+    private static int limit;
+    private static int ceiling;
+    private static int running;
+    private static int waiting;
+    private static int peakRunning;
+    private static boolean started;
+
+    private static int intervalsSinceDecrease = DECREASE_COOLDOWN_INTERVALS;
+    private static ScheduledExecutorService sampler;
+    private static BufferedWriter timeSeries;
+
+    private ConcurrencyController() {
+    }
+
+    /**
+     * Blocks until the current limit allows one more scenario to run.
+     */
+    public static void acquire() {
+        long start = System.nanoTime();
+        synchronized (lock) {
+            start();
+            waiting++;
+            try {
+                while (running >= limit) {
+                    lock.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a scenario slot", e);
+            } finally {
+                waiting--;
+            }
+            running++;
+            peakRunning = Math.max(peakRunning, running);
+        }
+        long waited = System.nanoTime() - start;
+        if (waited > TimeUnit.MILLISECONDS.toNanos(1)) {
+            waits.incrementAndGet();
+            waitNanos.addAndGet(waited);
+        }
+    }
+
+    /**
+     * Takes a slot for a helper thread that opens its own browser on behalf of a running scenario, such as a
+     * data-driven worker. Never blocks: the scenario already holds a slot and waits for its workers, so waiting here
+     * could deadlock. Counting the worker keeps new scenarios waiting while it runs and its browser's memory from being
+     * attributed to the scenarios.
+     */
+    public static void acquireForWorker() {
+        synchronized (lock) {
+            start();
+            running++;
+            peakRunning = Math.max(peakRunning, running);
+        }
+    }
+
+    /**
+     * Frees the slot taken by {@link #acquire()} or {@link #acquireForWorker()}.
+     */
+    public static void release() {
+        synchronized (lock) {
+            running--;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Records how long a step took, the latency signal of the controller. The duration is compared with the same
+     * step's recent runs; the first run of a step only starts its baseline.
+     *
+     * @param step  identifies the step, the same on every run of it
+     * @param nanos the step duration in nanoseconds
+     */
+    public static void recordStep(String step, long nanos) {
+        Deque<Long> recent = recentStepNanos.computeIfAbsent(step, key -> new ArrayDeque<>());
+        double slowdown;
+        synchronized (recent) {
+            slowdown = recent.isEmpty() ? Double.NaN : nanos / median(new ArrayList<>(recent));
+            recent.addLast(nanos);
+            if (recent.size() > STEP_BASELINE_RUNS) {
+                recent.removeFirst();
+            }
+        }
+        if (!Double.isNaN(slowdown)) {
+            stepSlowdowns.add(slowdown);
+        }
+    }
+
+    /**
+     * Stops adjusting and logs the final limit, peak concurrency and time scenarios spent waiting for a slot.
+     */
+    public static void logStatistics() {
+        synchronized (lock) {
+            if (!started) {
+                return;
+            }
+            if (sampler != null) {
+                sampler.shutdownNow();
+            }
+            logger.info("Concurrency: limit {} of {} at the end ({} increase(s), {} decrease(s)), peak {} scenario(s) running; "
+                            + "{} scenario(s) waited for a slot, {} ms in total; time series in {}",
+                    limit, ceiling, increases.get(), decreases.get(), peakRunning, waits.get(), waitNanos.get() / 1_000_000, TIME_SERIES);
+            closeTimeSeries();
+        }
+    }
+
+    private static void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        int configuredMax = config.getIntPropertyOrDefault("maxParallelScenarios", 0);
+        int max = configuredMax > 0 ? configuredMax : cores;
+        boolean adaptive = "adaptive".equalsIgnoreCase(config.getPropertyOrDefault("concurrencyMode", "adaptive"));
+        if (!adaptive) {
+            ceiling = max;
+            limit = max;
+            logger.info("Concurrency fixed at {} scenario(s)", limit);
+            return;
+        }
+        long available = memAvailableBytes();
+        long perBrowser = config.getIntPropertyOrDefault("browserMemoryMb", 500) * MB;
+        long freeFloor = config.getIntPropertyOrDefault("minFreeMemoryMb", 512) * MB;
+        int memoryFit = available < 0 ? max : (int) Math.max(1, (available - freeFloor) / perBrowser);
+        ceiling = Math.max(1, Math.min(max, memoryFit));
+        limit = Math.max(1, ceiling / 2);
+        logger.info("Adaptive concurrency: starting at {} scenario(s), ceiling {} ({} core(s), {} MB available memory)",
+                limit, ceiling, cores, available < 0 ? "unknown" : available / MB);
+        openTimeSeries();
+        record("start", "initial limit from cores and memory", Double.NaN, loadAverage(), available, BrowserProcesses.totalRssBytes());
+
+        long interval = config.getIntPropertyOrDefault("concurrencyIntervalMs", 5000);
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "concurrency-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleWithFixedDelay(ConcurrencyController::adjust, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs once per interval: reads the signals and applies one AIMD decision.
+     */
+    private static void adjust() {
+        try {
+            double slowdown = takeMedianSlowdown();
+            double load = loadAverage();
+            long available = memAvailableBytes();
+            long browserRss = BrowserProcesses.totalRssBytes();
+            double tolerance = Double.parseDouble(config.getPropertyOrDefault("stepLatencyTolerance", "2.0"));
+            double maxLoadPerCore = Double.parseDouble(config.getPropertyOrDefault("maxLoadPerCore", "1.5"));
+            double decreaseFactor = Double.parseDouble(config.getPropertyOrDefault("concurrencyDecreaseFactor", "0.5"));
+            long freeFloor = config.getIntPropertyOrDefault("minFreeMemoryMb", 512) * MB;
+
+            synchronized (lock) {
+                intervalsSinceDecrease++;
+                // Memory one more slot needs: measured per running browser once browsers are up, else the estimate
+                long perBrowser = browserRss > 0 && running > 0 ? browserRss / running : config.getIntPropertyOrDefault("browserMemoryMb", 500) * MB;
+                String reason = null;
+                if (!Double.isNaN(slowdown) && slowdown > tolerance) {
+                    reason = String.format("steps run %.1fx slower than their recent runs, over %.1fx", slowdown, tolerance);
+                } else if (load > maxLoadPerCore * cores) {
+                    reason = String.format("load average %.2f is over %.1f per core", load, maxLoadPerCore);
+                } else if (available >= 0 && available < freeFloor) {
+                    reason = String.format("%d MB available memory is under %d MB", available / MB, freeFloor / MB);
+                }
+
+                if (reason != null && limit > 1 && intervalsSinceDecrease >= DECREASE_COOLDOWN_INTERVALS) {
+                    int previous = limit;
+                    intervalsSinceDecrease = 0;
+                    limit = Math.max(1, (int) Math.floor(limit * decreaseFactor));
+                    decreases.incrementAndGet();
+                    logger.warn("Concurrency decreased from {} to {}: {}", previous, limit, reason);
+                    record("decrease", reason, slowdown, load, available, browserRss);
+                } else if (reason == null && waiting > 0 && limit < ceiling && (available < 0 || available - perBrowser > freeFloor)) {
+                    limit++;
+                    increases.incrementAndGet();
+                    lock.notifyAll();
+                    reason = waiting + " scenario(s) waiting and no overload";
+                    logger.info("Concurrency increased to {}: {}", limit, reason);
+                    record("increase", reason, slowdown, load, available, browserRss);
+                } else {
+                    record("hold", reason != null ? (limit > 1 ? "cooling down after a decrease: " : "") + reason : waiting == 0 ? "no scenario waiting" : limit >= ceiling ? "at ceiling" : "no memory for another browser",
+                            slowdown, load, available, browserRss);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Concurrency adjustment failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the median of the steps' slowdowns against their own recent runs since the last interval, or NaN when
+     * too few steps with a baseline finished.
+     */
+    private static double takeMedianSlowdown() {
+        List<Double> slowdowns;
+        synchronized (stepSlowdowns) {
+            slowdowns = new ArrayList<>(stepSlowdowns);
+            stepSlowdowns.clear();
+        }
+        return slowdowns.size() < MIN_STEPS_PER_INTERVAL ? Double.NaN : median(slowdowns);
+    }
+
+    private static <T extends Number & Comparable<T>> double median(List<T> values) {
+        Collections.sort(values);
+        return values.get(values.size() / 2).doubleValue();
+    }
+
+    /**
+     * Returns the 1-minute load average from {@code /proc/loadavg}, or -1 where it is not available.
+     */
+    private static double loadAverage() {
+        try {
+            return Double.parseDouble(Files.readString(Paths.get("/proc/loadavg")).trim().split("\\s+")[0]);
+        } catch (IOException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns MemAvailable from {@code /proc/meminfo} in bytes, or -1 where it is not available.
+     */
+    private static long memAvailableBytes() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/meminfo"))) {
+                if (line.startsWith("MemAvailable:")) {
+                    // Format: "MemAvailable:    5644928 kB"
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux
+        }
+        return -1;
+    }
+
+    private static void record(String decision, String reason, double slowdown, double load, long available, long browserRss) {
+        if (timeSeries == null) {
+            return;
+        }
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("elapsedMs", System.currentTimeMillis() - startMillis);
+        sample.put("decision", decision);
+        sample.put("reason", reason);
+        sample.put("limit", limit);
+        sample.put("ceiling", ceiling);
+        sample.put("running", running);
+        sample.put("waiting", waiting);
+        sample.put("stepSlowdown", Double.isNaN(slowdown) ? null : slowdown);
+        sample.put("loadAverage", load < 0 ? null : load);
+        sample.put("memAvailableMb", available < 0 ? null : available / MB);
+        sample.put("browserRssMb", browserRss < 0 ? null : browserRss / MB);
+        try {
+            timeSeries.write(new Json().toJson(sample).replaceAll("\\s*\\n\\s*", " "));
+            timeSeries.newLine();
+            timeSeries.flush();
+        } catch (IOException e) {
+            logger.error("Failed to write concurrency time series: {}", e.getMessage());
+        }
+    }
+
+    private static void openTimeSeries() {
+        try {
+            Files.createDirectories(TIME_SERIES.getParent());
+            timeSeries = Files.newBufferedWriter(TIME_SERIES, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Failed to open concurrency time series {}: {}", TIME_SERIES, e.getMessage());
+        }
+    }
+
+    private static void closeTimeSeries() {
+        if (timeSeries != null) {
+            try {
+                timeSeries.close();
+            } catch (IOException e) {
+                // Nothing left to write
+            }
+            timeSeries = null;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package utilities.config;
 
+import utilities.jfr.ConfigLoadEvent;
+import utilities.tracing.StartupProfiler;
+
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -16,6 +19,15 @@ public class PropertyFileReader {
         this("src/main/java/utilities/config/Config.properties");
     }
 
+    /**
+     * Returns a shared reader for the default configuration file, loaded once per JVM.
+     *
+     * @return the shared PropertyFileReader
+     */
+    public static PropertyFileReader getInstance() {
+        return DefaultHolder.INSTANCE;
+    }
+
     /**
      * Constructor to load a custom properties file.
      *
@@ -32,27 +44,50 @@ public class PropertyFileReader {
      * @param filePath path to the properties file
      */
     private void loadProperties(String filePath) {
-        try (InputStream input = new FileInputStream(filePath)) {
+        ConfigLoadEvent event = new ConfigLoadEvent();
+        event.begin();
+        try (StartupProfiler.Phase ignored = StartupProfiler.phase("config-load");
+             InputStream input = new FileInputStream(filePath)) {
             properties.load(input);
         } catch (IOException e) {
             throw new RuntimeException("Failed to load configuration file: " + filePath, e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.filePath = filePath;
+                event.propertyCount = properties.size();
+                event.commit();
+            }
         }
     }
 
     /**
-     * Retrieves a property value as a String.
+     * Retrieves a property value as a String. A JVM system property with the same key (e.g. -Dbrowser=firefox)
+     * overrides the value from the file.
      *
      * @param key the key for the property
      * @return the value of the property
      */
     public String getProperty(String key) {
-        String value = properties.getProperty(key);
+        String value = System.getProperty(key, properties.getProperty(key));
         if (value == null || value.trim().isEmpty()) {
             throw new RuntimeException("Property not found or empty for key: " + key);
         }
         return value.trim();
     }
 
+    /**
+     * Retrieves a property value as a String, defaulting to the specified fallback value if missing or empty.
+     *
+     * @param key          the key for the property
+     * @param defaultValue the default value if the property is not set
+     * @return the value of the property
+     */
+    public String getPropertyOrDefault(String key, String defaultValue) {
+        String value = System.getProperty(key, properties.getProperty(key));
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
     /**
      * Retrieves a property value as an int.
      *
@@ -79,6 +114,30 @@ public class PropertyFileReader {
         return Boolean.parseBoolean(value);
     }
 
+    /**
+     * Retrieves a property value as an int, defaulting to the specified fallback value if missing.
+     *
+     * @param key          the key for the property
+     * @param defaultValue the default value if the property is not set
+     * @return the integer value of the property
+     */
+    public int getIntPropertyOrDefault(String key, int defaultValue) {
+        String value = getPropertyOrDefault(key, null);
+        return value == null ? defaultValue : getIntProperty(key);
+    }
+
+    /**
+     * Retrieves a property value as a boolean, defaulting to the specified fallback value if missing.
+     *
+     * @param key          the key for the property
+     * @param defaultValue the default value if the property is not set
+     * @return the boolean value of the property
+     */
+    public boolean getBooleanPropertyOrDefault(String key, boolean defaultValue) {
+        String value = getPropertyOrDefault(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+
     /**
      * Utility method to get the username from the config file.
      *
@@ -156,4 +215,17 @@ public class PropertyFileReader {
             return defaultValue;
         }
     }
+
+    /**
+     * Utility method to get the wait strategy ("observer" or "polling"), defaulting to polling.
+     *
+     * @return the wait strategy value
+     */
+    public String getWaitStrategy() {
+        return getPropertyOrDefault("waitStrategy", "polling");
+    }
+
+    private static final class DefaultHolder {
+        private static final PropertyFileReader INSTANCE = new PropertyFileReader();
+    }
 }
@@ -0,0 +1,223 @@
+package utilities.data;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utilities.config.PropertyFileReader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A pool of test accounts loaded from {@code accountPool} (a CSV or JSONL file with username and password columns),
+ * leased exclusively to one thread at a time so parallel scenarios never share a session, cart or lockout.
+ * <p>
+ * Accounts are leased only when a step needs one: {@link #current()} leases any free account, and
+ * {@link #lease(String, String)} leases a named one, so logins with explicit credentials (inline in a feature, or rows of a
+ * data file) take the same lock as pooled logins. A thread holds at most one account, because its browser is logged in
+ * as one user at a time; leasing another returns the previous one first, so threads never wait while holding an
+ * account. Scenarios return their account in {@code Hooks.tearDown}.
+ * <p>
+ * Free accounts sit in a lock-free queue. When the account needed is taken, a lease backs off and retries until it is
+ * returned or {@code accountLeaseTimeoutMs} passes. The run reports how busy the pool was and how long leases waited.
+ * Without a pool file {@link #current()} returns the single {@code username}/{@code password} from the config.
+ */
+public final class AccountPool {
+    private static final Logger logger = LogManager.getLogger(AccountPool.class);
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final ThreadLocal<Account> current = new ThreadLocal<>();
+
+    private static final AtomicInteger inUse = new AtomicInteger();
+    private static final AtomicInteger peakInUse = new AtomicInteger();
+    private static final AtomicLong leases = new AtomicLong();
+    private static final AtomicLong waits = new AtomicLong();
+    private static final AtomicLong timeouts = new AtomicLong();
+    private static final AtomicLong waitNanos = new AtomicLong();
+    private static final AtomicLong maxWaitNanos = new AtomicLong();
+    private static final AtomicLong heldNanos = new AtomicLong();
+    private static final AtomicLong firstLeaseNanos = new AtomicLong();
+    private static final AtomicLong lastReleaseNanos = new AtomicLong();
+
+    private AccountPool() {
+    }
+
+    /**
+     * Returns whether accounts are leased from a pool file.
+     *
+     * @return true if {@code accountPool} is set
+     */
+    public static boolean isEnabled() {
+        return !config.getPropertyOrDefault("accountPool", "").isEmpty();
+    }
+
+    /**
+     * Returns the account held by the current thread, leasing a free one on first use.
+     *
+     * @return the leased account, or the config {@code username}/{@code password} when there is no pool
+     * @throws IllegalStateException if no account became free within {@code accountLeaseTimeoutMs}
+     */
+    public static Account current() {
+        Account account = current.get();
+        if (account != null) {
+            return account;
+        }
+        if (!isEnabled()) {
+            return new Account(config.getUsername(), config.getPassword());
+        }
+        release();
+        return take(Holder.FREE::poll, "any account");
+    }
+
+    /**
+     * Leases the named account to the current thread, waiting up to {@code accountLeaseTimeoutMs} while another
+     * thread holds it. Call before logging in with explicit credentials.
+     *
+     * @param username the account to log in as
+     * @param password its password, returned with usernames that are not pooled
+     * @return the leased account, or an unpooled account for usernames the pool does not contain
+     * @throws IllegalStateException if the account was not returned in time
+     */
+    public static Account lease(String username, String password) {
+        Account held = current.get();
+        if (held != null && held.getUsername().equals(username)) {
+            return held;
+        }
+        release();
+        Account pooled = isEnabled() && username != null ? Holder.BY_NAME.get(username) : null;
+        if (pooled == null) {
+            return new Account(username, password);
+        }
+        return take(() -> Holder.FREE.remove(pooled) ? pooled : null, "account " + username);
+    }
+
+    /**
+     * Returns the current thread's account to the pool; does nothing if it holds none.
+     */
+    public static void release() {
+        Account account = current.get();
+        current.remove();
+        if (account == null || account.leasedAtNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        heldNanos.addAndGet(now - account.leasedAtNanos);
+        lastReleaseNanos.accumulateAndGet(now, Math::max);
+        account.leasedAtNanos = 0;
+        inUse.decrementAndGet();
+        Holder.FREE.offer(account);
+        logger.debug("Returned account {}", account.getUsername());
+    }
+
+    private static Account take(Supplier<Account> attempt, String wanted) {
+        long start = System.nanoTime();
+        Account account = attempt.get();
+        if (account == null) {
+            waits.incrementAndGet();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(config.getIntPropertyOrDefault("accountLeaseTimeoutMs", 60000));
+            long backoff = TimeUnit.MICROSECONDS.toNanos(100);
+            while ((account = attempt.get()) == null) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timeouts.incrementAndGet();
+                    throw new IllegalStateException("No lease of " + wanted + " within "
+                            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms; " + inUse.get() + " of " + Holder.SIZE
+                            + " account(s) of " + config.getProperty("accountPool") + " are leased. Add accounts or lower the thread count.");
+                }
+                LockSupport.parkNanos(Math.min(backoff, remaining));
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            }
+        }
+        long now = System.nanoTime();
+        long waited = now - start;
+        waitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+        leases.incrementAndGet();
+        firstLeaseNanos.compareAndSet(0, now);
+        peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+        account.leasedAtNanos = now;
+        current.set(account);
+        logger.info("Leased test account {} after {} ms", account.getUsername(), waited / 1_000_000);
+        return account;
+    }
+
+    /**
+     * Logs pool utilization and lease wait times, to size the pool against the thread count.
+     */
+    public static void logStatistics() {
+        long count = leases.get();
+        if (count == 0) {
+            return;
+        }
+        long span = lastReleaseNanos.get() - firstLeaseNanos.get();
+        double utilization = span <= 0 ? 0 : 100.0 * heldNanos.get() / ((double) span * Holder.SIZE);
+        logger.info("Account pool: {} lease(s) of {} account(s), peak {} in use, {}% utilized; {} lease(s) waited "
+                        + "(avg {} ms, max {} ms), {} timed out",
+                count, Holder.SIZE, peakInUse.get(), String.format("%.0f", utilization), waits.get(),
+                waitNanos.get() / count / 1_000_000, maxWaitNanos.get() / 1_000_000, timeouts.get());
+    }
+
+    /**
+     * A test credential. Only one thread holds a pooled account at a time.
+     */
+    public static final class Account {
+        private final String username;
+        private final String password;
+        // Written and read only by the thread holding the lease
+        private long leasedAtNanos;
+
+        private Account(String username, String password) {
+            this.username = username;
+            this.password = password;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        @Override
+        public String toString() {
+            return username;
+        }
+    }
+
+    /**
+     * Loads the pool file on first use.
+     */
+    private static final class Holder {
+        private static final Queue<Account> FREE = new ConcurrentLinkedQueue<>();
+        private static final Map<String, Account> BY_NAME = new LinkedHashMap<>();
+        private static final int SIZE;
+
+        static {
+            Path file = Paths.get(config.getProperty("accountPool"));
+            if (!Files.exists(file)) {
+                throw new IllegalStateException("Account pool file not found: " + file.toAbsolutePath());
+            }
+            try (Stream<Map<String, String>> rows = DataSource.open(file)) {
+                rows.filter(row -> !row.getOrDefault("username", "").isEmpty())
+                        .forEach(row -> BY_NAME.putIfAbsent(row.get("username"), new Account(row.get("username"), row.getOrDefault("password", ""))));
+            }
+            FREE.addAll(BY_NAME.values());
+            SIZE = FREE.size();
+            if (SIZE == 0) {
+                throw new IllegalStateException("Account pool file has no accounts: " + file.toAbsolutePath());
+            }
+            logger.info("Loaded {} test account(s) from {}", SIZE, file);
+        }
+    }
+}
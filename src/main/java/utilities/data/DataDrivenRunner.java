@@ -0,0 +1,270 @@
+package utilities.data;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import utilities.concurrency.ConcurrencyController;
+import utilities.tracing.Span;
+import utilities.tracing.Tracer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Runs a task for every row of a CSV or JSONL data file across a fixed number of worker threads.
+ * <p>
+ * Rows are read lazily and handed to the workers through a small bounded queue, and each result is appended to
+ * {@code target/data-results/<file>-<path tag>-<run>.jsonl} as soon as it is known, so memory use does not grow with
+ * the size of the dataset. A failing row is recorded and does not stop the others; if every worker stops (an Error,
+ * or a failing teardown), the run fails instead of waiting for a worker to take the next row. Columns whose name
+ * contains "password" are masked in the results.
+ */
+public final class DataDrivenRunner {
+    private static final Logger logger = LogManager.getLogger(DataDrivenRunner.class);
+    private static final int MAX_REPORTED_FAILURES = 10;
+    private static final Object END = new Object();
+    private static final long HAND_OFF_CHECK_MS = 200;
+    private static final Map<Path, AtomicInteger> runsPerFile = new ConcurrentHashMap<>();
+
+    /**
+     * The work done for one row; runs on a worker thread, which keeps its own driver between rows.
+     */
+    @FunctionalInterface
+    public interface RowTask {
+        void run(Map<String, String> row) throws Exception;
+    }
+
+    private DataDrivenRunner() {
+    }
+
+    /**
+     * Names the result file after the data file's name, a tag derived from its full path (so same-named files in
+     * different folders do not collide) and the number of this run of the file in the JVM (so parallel runs of the
+     * same file do not either). A rerun of the suite writes the same names again.
+     *
+     * @param dataFile the data file
+     * @return {@code target/data-results/<file>-<path tag>-<run>.jsonl}
+     */
+    static Path resultFile(Path dataFile) {
+        Path absolute = dataFile.toAbsolutePath().normalize();
+        String stem = absolute.getFileName().toString().replaceFirst("\\.[^.]+$", "");
+        int run = runsPerFile.computeIfAbsent(absolute, key -> new AtomicInteger()).incrementAndGet();
+        return Paths.get("target", "data-results", String.format("%s-%08x-%d.jsonl", stem, absolute.toString().hashCode(), run));
+    }
+
+    /**
+     * Streams the data file through the task on the given number of workers and waits for all rows to finish.
+     *
+     * @param dataFile       the .csv or .jsonl file to read
+     * @param workers        the number of worker threads
+     * @param task           the work to do per row
+     * @param workerTeardown runs on each worker thread after its last row, e.g. to quit its driver
+     * @return the run summary
+     */
+    public static Summary run(Path dataFile, int workers, RowTask task, Runnable workerTeardown) {
+        Path resultFile = resultFile(dataFile);
+        Summary summary = new Summary(resultFile);
+        BlockingQueue<Object> queue = new ArrayBlockingQueue<>(Math.max(1, workers) * 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, workers),
+                runnable -> new Thread(runnable, "data-worker-" + threadIndex.incrementAndGet()));
+        long start = System.nanoTime();
+
+        try (BufferedWriter results = open(resultFile)) {
+            Json json = new Json();
+            AtomicInteger liveWorkers = new AtomicInteger(Math.max(1, workers));
+            for (int i = 0; i < Math.max(1, workers); i++) {
+                pool.execute(() -> {
+                    // The worker's browser counts against the concurrency limit like a scenario's
+                    ConcurrencyController.acquireForWorker();
+                    try {
+                        Object item;
+                        while ((item = queue.take()) != END) {
+                            Row row = (Row) item;
+                            runRow(row, task, summary, results, json);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (RuntimeException | Error e) {
+                        logger.error("Data worker {} stopped: {}", Thread.currentThread().getName(), e.toString(), e);
+                    } finally {
+                        try {
+                            workerTeardown.run();
+                        } catch (RuntimeException e) {
+                            logger.error("Data worker teardown failed: {}", e.getMessage(), e);
+                        } finally {
+                            liveWorkers.decrementAndGet();
+                            ConcurrencyController.release();
+                        }
+                    }
+                });
+            }
+
+            int index = 0;
+            try (Stream<Map<String, String>> rows = DataSource.open(dataFile)) {
+                Iterator<Map<String, String>> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    Row row = new Row(++index, iterator.next());
+                    if (!hand(queue, row, liveWorkers)) {
+                        throw new IllegalStateException("All data workers stopped before row " + row.index + " of " + dataFile
+                                + "; see the log for the cause");
+                    }
+                }
+            } finally {
+                for (int i = 0; i < Math.max(1, workers); i++) {
+                    if (!hand(queue, END, liveWorkers)) {
+                        break;
+                    }
+                }
+                pool.shutdown();
+                pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write data results to " + resultFile, e);
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while running data file " + dataFile, e);
+        }
+        summary.wallNanos = System.nanoTime() - start;
+        logger.info("Data file {}: {}", dataFile, summary);
+        return summary;
+    }
+
+    /**
+     * Puts the item on the queue, giving up once no worker is left to take it.
+     *
+     * @return false if every worker has stopped
+     */
+    private static boolean hand(BlockingQueue<Object> queue, Object item, AtomicInteger liveWorkers) throws InterruptedException {
+        while (!queue.offer(item, HAND_OFF_CHECK_MS, TimeUnit.MILLISECONDS)) {
+            if (liveWorkers.get() == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void runRow(Row row, RowTask task, Summary summary, BufferedWriter results, Json json) {
+        long rowStart = System.nanoTime();
+        String error = null;
+        try (Span ignored = Tracer.start("Data row " + row.index, "step")) {
+            task.run(row.values);
+        } catch (Exception | AssertionError e) {
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage().trim();
+        }
+        long elapsed = System.nanoTime() - rowStart;
+        summary.record(row.index, error, elapsed);
+        logger.info("Row {} {} in {} ms", row.index, error == null ? "passed" : "failed: " + error, elapsed / 1_000_000);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("row", row.index);
+        result.put("status", error == null ? "passed" : "failed");
+        result.put("durationMs", elapsed / 1_000_000.0);
+        result.put("thread", Thread.currentThread().getName());
+        if (error != null) {
+            result.put("error", error);
+        }
+        Map<String, String> data = new LinkedHashMap<>();
+        row.values.forEach((key, value) -> data.put(key, key.toLowerCase().contains("password") ? "***" : value));
+        result.put("data", data);
+        synchronized (results) {
+            try {
+                results.write(json.toJson(result).replaceAll("\\s*\\n\\s*", " "));
+                results.newLine();
+                results.flush();
+            } catch (IOException e) {
+                logger.error("Failed to write result of row {}: {}", row.index, e.getMessage(), e);
+            }
+        }
+    }
+
+    private static BufferedWriter open(Path resultFile) throws IOException {
+        Files.createDirectories(resultFile.getParent());
+        return Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8);
+    }
+
+    private static final class Row {
+        private final int index;
+        private final Map<String, String> values;
+
+        Row(int index, Map<String, String> values) {
+            this.index = index;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Pass/fail counts and timings of a data-driven run.
+     */
+    public static final class Summary {
+        private final Path resultFile;
+        private final AtomicInteger passed = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong rowNanos = new AtomicLong();
+        private final AtomicLong slowestNanos = new AtomicLong();
+        private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+        private volatile long wallNanos;
+
+        private Summary(Path resultFile) {
+            this.resultFile = resultFile;
+        }
+
+        private void record(int index, String error, long nanos) {
+            rowNanos.addAndGet(nanos);
+            slowestNanos.accumulateAndGet(nanos, Math::max);
+            if (error == null) {
+                passed.incrementAndGet();
+            } else {
+                failed.incrementAndGet();
+                if (failures.size() < MAX_REPORTED_FAILURES) {
+                    failures.add("Row " + index + ": " + error);
+                }
+            }
+        }
+
+        public int getPassed() {
+            return passed.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        public List<String> getFailures() {
+            return List.copyOf(failures);
+        }
+
+        public Path getResultFile() {
+            return resultFile;
+        }
+
+        @Override
+        public String toString() {
+            int rows = passed.get() + failed.get();
+            return String.format("%d row(s), %d passed, %d failed in %d ms (avg %d ms, slowest %d ms per row); results in %s",
+                    rows, passed.get(), failed.get(), wallNanos / 1_000_000, rows == 0 ? 0 : rowNanos.get() / rows / 1_000_000,
+                    slowestNanos.get() / 1_000_000, resultFile);
+        }
+    }
+}
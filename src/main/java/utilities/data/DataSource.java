@@ -0,0 +1,185 @@
+package utilities.data;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams rows of test data lazily from a CSV file (first line is the header) or a JSONL file (one JSON object per
+ * line), so arbitrarily large datasets never have to fit in memory. Blank lines are skipped.
+ */
+public final class DataSource {
+
+    private DataSource() {
+    }
+
+    /**
+     * Opens a data file as a lazy stream of rows; close the stream to release the file.
+     *
+     * @param file a .csv or .jsonl file
+     * @return the rows as column-name to value maps, in file order
+     */
+    public static Stream<Map<String, String>> open(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        BufferedReader reader;
+        try {
+            reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open data file: " + file, e);
+        }
+        Iterator<Map<String, String>> rows;
+        try {
+            if (name.endsWith(".csv")) {
+                rows = new CsvRows(reader, file);
+            } else if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+                rows = new JsonlRows(reader);
+            } else {
+                throw new IllegalArgumentException("Unsupported data file type (expected .csv or .jsonl): " + file);
+            }
+        } catch (RuntimeException e) {
+            // No stream owns the reader yet (e.g. a CSV file without a header row)
+            closeQuietly(reader);
+            throw e;
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> closeQuietly(reader));
+    }
+
+    private static void closeQuietly(BufferedReader reader) {
+        try {
+            reader.close();
+        } catch (IOException e) {
+            // Nothing left to read
+        }
+    }
+
+    /**
+     * Reads the next non-blank line, or null at end of file.
+     */
+    private static String nextLine(BufferedReader reader) {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.trim().isEmpty());
+            return line;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private abstract static class LineRows implements Iterator<Map<String, String>> {
+        final BufferedReader reader;
+        private Map<String, String> next;
+
+        LineRows(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        abstract Map<String, String> parse(String line);
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                String line = nextLine(reader);
+                next = line == null ? null : parse(line);
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map<String, String> row = next;
+            next = null;
+            return row;
+        }
+    }
+
+    private static final class CsvRows extends LineRows {
+        private final List<String> header;
+
+        CsvRows(BufferedReader reader, Path file) {
+            super(reader);
+            String line = nextLine(reader);
+            if (line == null) {
+                throw new IllegalArgumentException("Data file has no header row: " + file);
+            }
+            this.header = splitCsv(line);
+        }
+
+        @Override
+        Map<String, String> parse(String line) {
+            List<String> values = splitCsv(line);
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), i < values.size() ? values.get(i) : "");
+            }
+            return row;
+        }
+
+        /**
+         * Splits one CSV line; fields may be double-quoted, with "" for a literal quote.
+         */
+        private static List<String> splitCsv(String line) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString().trim());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString().trim());
+            return fields;
+        }
+    }
+
+    private static final class JsonlRows extends LineRows {
+        private final Json json = new Json();
+
+        JsonlRows(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        Map<String, String> parse(String line) {
+            Map<String, Object> values = json.toType(line, Json.MAP_TYPE);
+            Map<String, String> row = new LinkedHashMap<>();
+            values.forEach((key, value) -> row.put(key, value == null ? "" : String.valueOf(value)));
+            return row;
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package utilities.drivermanager;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.chromium.ChromiumNetworkConditions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.chromium.HasNetworkConditions;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Runs scenarios as isolated browser contexts inside one shared Chromium browser per browser type
+ * ({@code executionMode=context}).
+ * <p>
+ * Each context is created with DevTools {@code Target.createBrowserContext}, so it has its own cookies, storage and
+ * cache, and gets its own window. Scenarios receive a context-bound driver: every call on it, or on the elements,
+ * navigation and options objects it returns, switches the shared session to the context's window under a per-browser
+ * lock first. Commands from parallel scenarios are therefore serialized through the one browser session.
+ * <p>
+ * Timeouts and DevTools network conditions are session-wide, so each context records the values its scenario set and
+ * they are re-applied whenever the session switches to that context; a newly created context starts from the WebDriver
+ * defaults. The current frame cannot be restored that way: switching windows returns the session to the top-level
+ * document, so a scenario that switched into a frame must not rely on staying there once another context has run a
+ * command in between.
+ */
+public final class BrowserContexts {
+    private static final Logger logger = LogManager.getLogger(BrowserContexts.class);
+    private static final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    // WebDriver defaults for the session-wide timeouts, applied to contexts that never set their own
+    private static final Map<String, Duration> DEFAULT_TIMEOUTS = Map.of("implicitlyWait", Duration.ZERO,
+            "pageLoadTimeout", Duration.ofMinutes(5), "scriptTimeout", Duration.ofSeconds(30));
+    private static final Set<Class<?>> BOUND_TYPES = Set.of(WebElement.class, WebDriver.Navigation.class, WebDriver.Options.class,
+            WebDriver.Timeouts.class, WebDriver.Window.class, WebDriver.TargetLocator.class, Alert.class);
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(BrowserContexts::quitAll, "browser-context-shutdown"));
+    }
+
+    private BrowserContexts() {
+    }
+
+    /**
+     * Returns whether the browser supports DevTools browser contexts.
+     *
+     * @param browser the browser name
+     * @return true for chrome and edge
+     */
+    public static boolean supports(String browser) {
+        return "chrome".equalsIgnoreCase(browser) || "edge".equalsIgnoreCase(browser);
+    }
+
+    /**
+     * Creates a new isolated browser context in the shared browser, launching the browser on first use.
+     *
+     * @param browser  the browser name ("chrome" or "edge")
+     * @param launcher launches the shared browser
+     * @return a driver bound to the new context; quitting it disposes the context only
+     */
+    public static WebDriver newContext(String browser, Function<String, WebDriver> launcher) {
+        Host host = hosts.computeIfAbsent(browser.toLowerCase(), name -> new Host(name, launcher.apply(name)));
+        return host.newContext();
+    }
+
+    /**
+     * Quits every shared browser; called from the JVM shutdown hook.
+     */
+    public static void quitAll() {
+        hosts.values().forEach(Host::quit);
+        hosts.clear();
+    }
+
+    /**
+     * One shared browser session and the lock that serializes its contexts.
+     */
+    private static final class Host {
+        private final String browser;
+        private final WebDriver driver;
+        private final ReentrantLock lock = new ReentrantLock();
+        private String activeHandle;
+        // Context whose timeouts and network conditions the session currently carries
+        private Context stateOwner;
+        private final Map<String, Duration> appliedTimeouts = new HashMap<>(DEFAULT_TIMEOUTS);
+        private Object appliedNetworkConditions;
+
+        Host(String browser, WebDriver driver) {
+            if (!(driver instanceof HasCdp)) {
+                throw new IllegalStateException("Browser contexts require a DevTools-capable driver, got: " + driver.getClass().getName());
+            }
+            this.browser = browser;
+            this.driver = driver;
+            this.activeHandle = driver.getWindowHandle();
+            logger.info("Shared {} browser started for context execution mode.", browser);
+        }
+
+        WebDriver newContext() {
+            lock.lock();
+            try {
+                HasCdp cdp = (HasCdp) driver;
+                String contextId = (String) cdp.executeCdpCommand("Target.createBrowserContext", Map.of("disposeOnDetach", false))
+                        .get("browserContextId");
+                Set<String> before = new HashSet<>(driver.getWindowHandles());
+                cdp.executeCdpCommand("Target.createTarget", Map.of("url", "about:blank", "browserContextId", contextId, "newWindow", true));
+                Set<String> added = new LinkedHashSet<>(driver.getWindowHandles());
+                added.removeAll(before);
+                if (added.size() != 1) {
+                    throw new IllegalStateException("Could not identify the window of browser context " + contextId);
+                }
+                Context context = new Context(this, contextId, added.iterator().next());
+                logger.info("Browser context {} created in shared {} browser.", contextId, browser);
+                return context.driver;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void quit() {
+            lock.lock();
+            try {
+                driver.quit();
+                logger.info("Shared {} browser quit.", browser);
+            } catch (RuntimeException e) {
+                logger.error("Failed to quit shared {} browser: {}", browser, e.getMessage(), e);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * A browser context and the window it is bound to.
+     */
+    private static final class Context {
+        private final Host host;
+        private final String contextId;
+        private final WebDriver driver;
+        private String handle;
+        private boolean disposed;
+        private final Map<String, Duration> timeouts = new HashMap<>(DEFAULT_TIMEOUTS);
+        private Object networkConditions;
+
+        Context(Host host, String contextId, String handle) {
+            this.host = host;
+            this.contextId = contextId;
+            this.handle = handle;
+            Set<Class<?>> interfaces = interfacesOf(host.driver.getClass());
+            interfaces.add(HasBrowserContext.class);
+            this.driver = (WebDriver) Proxy.newProxyInstance(BrowserContexts.class.getClassLoader(),
+                    interfaces.toArray(new Class<?>[0]), new Bound(this, host.driver));
+        }
+
+        /**
+         * Switches the shared session to this context's window and restores its timeouts and network conditions;
+         * must be called with the host lock held.
+         */
+        void activate() {
+            if (disposed) {
+                throw new IllegalStateException("Browser context " + contextId + " has been disposed.");
+            }
+            if (!handle.equals(host.activeHandle)) {
+                host.driver.switchTo().window(handle);
+                host.activeHandle = handle;
+            }
+            if (host.stateOwner != this) {
+                restoreSessionState();
+                host.stateOwner = this;
+            }
+        }
+
+        private void restoreSessionState() {
+            WebDriver.Timeouts sessionTimeouts = host.driver.manage().timeouts();
+            timeouts.forEach((name, value) -> {
+                if (!value.equals(host.appliedTimeouts.get(name))) {
+                    switch (name) {
+                        case "implicitlyWait":
+                            sessionTimeouts.implicitlyWait(value);
+                            break;
+                        case "pageLoadTimeout":
+                            sessionTimeouts.pageLoadTimeout(value);
+                            break;
+                        default:
+                            sessionTimeouts.scriptTimeout(value);
+                    }
+                    host.appliedTimeouts.put(name, value);
+                }
+            });
+            if (!Objects.equals(networkConditions, host.appliedNetworkConditions) && host.driver instanceof HasNetworkConditions) {
+                if (networkConditions == null) {
+                    ((HasNetworkConditions) host.driver).deleteNetworkConditions();
+                } else {
+                    ((HasNetworkConditions) host.driver).setNetworkConditions((ChromiumNetworkConditions) networkConditions);
+                }
+                host.appliedNetworkConditions = networkConditions;
+            }
+        }
+
+        /**
+         * Records a session-wide setting the scenario just changed, so it can be restored after other contexts ran.
+         */
+        void recordSessionState(Object target, String method, Object[] args) {
+            if (target instanceof WebDriver.Timeouts && args != null && args.length > 0) {
+                Duration value = args[0] instanceof Duration ? (Duration) args[0]
+                        : args.length > 1 && args[1] instanceof TimeUnit ? Duration.ofMillis(((TimeUnit) args[1]).toMillis((Long) args[0])) : null;
+                String name = "setScriptTimeout".equals(method) ? "scriptTimeout" : method;
+                if (value != null && DEFAULT_TIMEOUTS.containsKey(name)) {
+                    timeouts.put(name, value);
+                    host.appliedTimeouts.put(name, value);
+                }
+            } else if (target == host.driver && "setNetworkConditions".equals(method)) {
+                networkConditions = args[0];
+                host.appliedNetworkConditions = networkConditions;
+            } else if (target == host.driver && "deleteNetworkConditions".equals(method)) {
+                networkConditions = null;
+                host.appliedNetworkConditions = null;
+            }
+        }
+
+        void dispose() {
+            host.lock.lock();
+            try {
+                if (disposed) {
+                    return;
+                }
+                disposed = true;
+                ((HasCdp) host.driver).executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", contextId));
+                // The session's current window was closed with the context; the next call switches explicitly
+                host.activeHandle = null;
+                logger.info("Browser context {} disposed.", contextId);
+            } finally {
+                host.lock.unlock();
+            }
+        }
+
+        /**
+         * Returns the windows that belong to this context; must be called with the host lock held.
+         */
+        Set<String> windowHandles() {
+            Set<String> targetIds = new HashSet<>();
+            Object targetInfos = ((HasCdp) host.driver).executeCdpCommand("Target.getTargets", Map.of()).get("targetInfos");
+            for (Object info : (List<?>) targetInfos) {
+                Map<?, ?> target = (Map<?, ?>) info;
+                if (contextId.equals(target.get("browserContextId")) && "page".equals(target.get("type"))) {
+                    targetIds.add(String.valueOf(target.get("targetId")).toUpperCase());
+                }
+            }
+            Set<String> handles = new LinkedHashSet<>();
+            for (String windowHandle : host.driver.getWindowHandles()) {
+                if (targetIds.contains(windowHandle.toUpperCase())) {
+                    handles.add(windowHandle);
+                }
+            }
+            // Older drivers do not use target ids as window handles; fall back to the bound window
+            return handles.isEmpty() ? Set.of(handle) : handles;
+        }
+
+        Object wrap(Object result) {
+            if (result instanceof List) {
+                List<Object> wrapped = new ArrayList<>();
+                for (Object item : (List<?>) result) {
+                    wrapped.add(wrap(item));
+                }
+                return wrapped;
+            }
+            if (result == null || result == host.driver || Proxy.isProxyClass(result.getClass())
+                    || BOUND_TYPES.stream().noneMatch(type -> type.isInstance(result))) {
+                return result == host.driver ? driver : result;
+            }
+            Set<Class<?>> interfaces = interfacesOf(result.getClass());
+            if (result instanceof WebElement) {
+                interfaces.add(WrapsElement.class);
+            }
+            return Proxy.newProxyInstance(BrowserContexts.class.getClassLoader(), interfaces.toArray(new Class<?>[0]), new Bound(this, result));
+        }
+    }
+
+    /**
+     * Forwards calls to the shared session after switching to the context's window.
+     */
+    private static final class Bound implements InvocationHandler {
+        private final Context context;
+        private final Object target;
+
+        Bound(Context context, Object target) {
+            this.context = context;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (method.getDeclaringClass() == Object.class) {
+                switch (name) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return "BrowserContext(" + context.contextId + ") -> " + target;
+                }
+            }
+            if (method.getDeclaringClass() == HasBrowserContext.class) {
+                return context.contextId;
+            }
+            if (method.getDeclaringClass() == WrapsElement.class) {
+                return target;
+            }
+            if (method.getDeclaringClass() == WrapsDriver.class) {
+                return context.driver;
+            }
+            if (target == context.host.driver && "quit".equals(name)) {
+                context.dispose();
+                return null;
+            }
+
+            context.host.lock.lock();
+            try {
+                context.activate();
+                if (target == context.host.driver && "getWindowHandles".equals(name)) {
+                    return context.windowHandles();
+                }
+                Object result = method.invoke(target, unwrap(args));
+                context.recordSessionState(target, name, args);
+                if (target == context.host.driver && "close".equals(name)) {
+                    context.host.activeHandle = null;
+                }
+                if (target instanceof WebDriver.TargetLocator && result instanceof WebDriver) {
+                    // Popups and new tabs opened by the scenario stay in its context; follow the switch
+                    context.handle = context.host.driver.getWindowHandle();
+                    context.host.activeHandle = context.handle;
+                }
+                return context.wrap(result);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                context.host.lock.unlock();
+            }
+        }
+
+        private static Object[] unwrap(Object[] args) {
+            if (args == null) {
+                return null;
+            }
+            Object[] unwrapped = new Object[args.length];
+            for (int i = 0; i < args.length; i++) {
+                unwrapped[i] = unwrap(args[i]);
+            }
+            return unwrapped;
+        }
+
+        private static Object unwrap(Object arg) {
+            if (arg instanceof Object[]) {
+                return unwrap((Object[]) arg);
+            }
+            if (arg instanceof List) {
+                List<Object> unwrapped = new ArrayList<>();
+                for (Object item : (List<?>) arg) {
+                    unwrapped.add(unwrap(item));
+                }
+                return unwrapped;
+            }
+            if (arg != null && Proxy.isProxyClass(arg.getClass()) && Proxy.getInvocationHandler(arg) instanceof Bound) {
+                return ((Bound) Proxy.getInvocationHandler(arg)).target;
+            }
+            return arg;
+        }
+    }
+
+    private static Set<Class<?>> interfacesOf(Class<?> type) {
+        Set<Class<?>> interfaces = new LinkedHashSet<>();
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Class<?> declared : current.getInterfaces()) {
+                if (Modifier.isPublic(declared.getModifiers())) {
+                    interfaces.add(declared);
+                }
+            }
+        }
+        return interfaces;
+    }
+}
@@ -0,0 +1,135 @@
+package utilities.drivermanager;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the resident memory of the driver and browser processes started by this JVM, read from {@code /proc},
+ * and averages it per running scenario.
+ */
+public final class BrowserProcesses {
+    private static final Logger logger = LogManager.getLogger(BrowserProcesses.class);
+    private static final AtomicLong samples = new AtomicLong();
+    private static final AtomicLong perScenarioBytesTotal = new AtomicLong();
+    private static final AtomicLong peakBytes = new AtomicLong();
+    private static final Path MODES_FILE = Paths.get("target", "browser-memory.json");
+    private static final long MB = 1024 * 1024;
+
+    private BrowserProcesses() {
+    }
+
+    /**
+     * Sums the resident set size of every process descending from this JVM.
+     *
+     * @return the total RSS in bytes, or -1 if {@code /proc} is not available
+     */
+    public static long totalRssBytes() {
+        if (!Files.isDirectory(Paths.get("/proc/self"))) {
+            return -1;
+        }
+        return ProcessHandle.current().descendants().mapToLong(process -> rssBytes(process.pid())).sum();
+    }
+
+    private static long rssBytes(long pid) {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    // Format: "VmRSS:     123456 kB"
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // The process exited while being read
+        }
+        return 0;
+    }
+
+    /**
+     * Samples browser memory at the end of a scenario, attributing it evenly to the scenarios running at that time.
+     *
+     * @param runningScenarios the number of driver sessions or browser contexts currently open, including this one
+     */
+    public static void recordScenario(int runningScenarios) {
+        long total = totalRssBytes();
+        if (total < 0 || runningScenarios <= 0) {
+            return;
+        }
+        samples.incrementAndGet();
+        perScenarioBytesTotal.addAndGet(total / runningScenarios);
+        peakBytes.accumulateAndGet(total, Math::max);
+        logger.debug("Browser processes use {} MB for {} running scenario(s)", total / (1024 * 1024), runningScenarios);
+    }
+
+    /**
+     * Logs the average browser memory per scenario and the peak total for the execution mode, next to the last
+     * recorded run of the other mode. Each mode's latest figures are kept in {@code target/browser-memory.json}, so a
+     * {@code process} run followed by a {@code context} run (or the reverse) reports the two side by side.
+     *
+     * @param executionMode the execution mode of the run ("process" or "context")
+     */
+    public static void logStatistics(String executionMode) {
+        long count = samples.get();
+        if (count == 0) {
+            return;
+        }
+        long perScenarioMb = perScenarioBytesTotal.get() / count / MB;
+        long peakMb = peakBytes.get() / MB;
+        logger.info("Browser memory ({} mode): {} MB per scenario on average, {} MB peak across {} sample(s)",
+                executionMode, perScenarioMb, peakMb, count);
+
+        Map<String, Object> modes = readModes();
+        Map<String, Object> current = new LinkedHashMap<>();
+        current.put("perScenarioMb", perScenarioMb);
+        current.put("peakMb", peakMb);
+        current.put("samples", count);
+        current.put("recordedAt", Instant.now().toString());
+        modes.put(executionMode, current);
+        writeModes(modes);
+
+        StringBuilder comparison = new StringBuilder();
+        modes.forEach((mode, value) -> {
+            if (!mode.equals(executionMode) && value instanceof Map) {
+                Map<?, ?> other = (Map<?, ?>) value;
+                comparison.append(String.format("%n  %-8s %6s MB per scenario, %6s MB peak (run of %s)", mode,
+                        other.get("perScenarioMb"), other.get("peakMb"), other.get("recordedAt")));
+            }
+        });
+        if (comparison.length() > 0) {
+            logger.info("Browser memory by execution mode:{}{}", String.format("%n  %-8s %6d MB per scenario, %6d MB peak (this run)",
+                    executionMode, perScenarioMb, peakMb), comparison);
+        }
+    }
+
+    private static Map<String, Object> readModes() {
+        if (Files.exists(MODES_FILE)) {
+            try {
+                return new LinkedHashMap<>(new Json().toType(Files.readString(MODES_FILE), Json.MAP_TYPE));
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Could not read {}: {}", MODES_FILE, e.getMessage());
+            }
+        }
+        return new LinkedHashMap<>();
+    }
+
+    private static void writeModes(Map<String, Object> modes) {
+        try {
+            Files.createDirectories(MODES_FILE.getParent());
+            Files.write(MODES_FILE, new Json().toJson(modes).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warn("Could not write {}: {}", MODES_FILE, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package utilities.drivermanager;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.support.events.WebDriverListener;
+import utilities.config.PropertyFileReader;
+import utilities.tracing.Span;
+import utilities.tracing.Tracer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * Counts and times every WebDriver command issued through a decorated driver, per step and per scenario.
+ * <p>
+ * One instance is attached to each driver created by {@link GetDriverManager}. Hooks mark step and scenario
+ * boundaries; at the end of each step the totals are checked against the budgets in Config.properties
+ * ({@code stepCommandBudget}, {@code stepTimeBudgetMs}) and either logged or failed depending on {@code budgetMode}.
+ * Every total is labelled with the session's network profile so timings from different profiles are not compared.
+ */
+public class CommandInstrumentation implements WebDriverListener {
+    private static final Logger logger = LogManager.getLogger(CommandInstrumentation.class);
+
+    // Accessors that only hand out local objects and never reach the driver
+    private static final Set<String> LOCAL_METHODS = Set.of("manage", "navigate", "switchTo", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "getCapabilities", "toString", "hashCode", "equals");
+
+    private final int stepCommandBudget;
+    private final long stepTimeBudgetMs;
+    private final boolean failOnBudget;
+    private final String networkProfile;
+
+    private volatile String scenarioName = "(no scenario)";
+    private volatile int stepIndex;
+    private volatile long stepCommands;
+    private volatile long stepNanos;
+    private volatile long scenarioCommands;
+    private volatile long scenarioNanos;
+    private volatile long commandStartNanos;
+    private volatile String commandInFlight;
+    private Span commandSpan;
+
+    /**
+     * Creates the instrumentation for one driver session.
+     *
+     * @param networkProfile the name of the network profile emulated by the session
+     */
+    public CommandInstrumentation(String networkProfile) {
+        this.networkProfile = networkProfile;
+        PropertyFileReader config = PropertyFileReader.getInstance();
+        this.stepCommandBudget = config.getIntPropertyOrDefault("stepCommandBudget", 0);
+        this.stepTimeBudgetMs = config.getIntPropertyOrDefault("stepTimeBudgetMs", 0);
+        this.failOnBudget = "fail".equalsIgnoreCase(config.getPropertyOrDefault("budgetMode", "warn"));
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (isCommand(method)) {
+            commandInFlight = commandName(method);
+            commandSpan = Tracer.start(commandInFlight, "command");
+            commandStartNanos = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        if (isCommand(method)) {
+            recordCommand();
+        }
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        if (isCommand(method)) {
+            recordCommand();
+        }
+    }
+
+    private static boolean isCommand(Method method) {
+        return !LOCAL_METHODS.contains(method.getName());
+    }
+
+    private static String commandName(Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    private void recordCommand() {
+        long elapsed = System.nanoTime() - commandStartNanos;
+        stepCommands++;
+        stepNanos += elapsed;
+        scenarioCommands++;
+        scenarioNanos += elapsed;
+        commandInFlight = null;
+        if (commandSpan != null) {
+            commandSpan.close();
+            commandSpan = null;
+        }
+    }
+
+    /**
+     * Returns the command currently being executed, or null when the driver is idle.
+     *
+     * @return the in-flight command name
+     */
+    public String getCommandInFlight() {
+        return commandInFlight;
+    }
+
+    /**
+     * Returns when the in-flight command started, as a {@link System#nanoTime()} value.
+     *
+     * @return the start time of the in-flight command
+     */
+    public long getCommandStartNanos() {
+        return commandStartNanos;
+    }
+
+    /**
+     * Resets all counters for a new scenario.
+     *
+     * @param name the scenario name
+     */
+    public void startScenario(String name) {
+        scenarioName = name;
+        stepIndex = 0;
+        scenarioCommands = 0;
+        scenarioNanos = 0;
+        stepCommands = 0;
+        stepNanos = 0;
+    }
+
+    /**
+     * Resets the step counters; commands issued before the first step (e.g. in hooks) count toward the scenario only.
+     */
+    public void startStep() {
+        stepIndex++;
+        stepCommands = 0;
+        stepNanos = 0;
+    }
+
+    /**
+     * Logs the step totals and enforces the configured budgets.
+     *
+     * @throws AssertionError if a budget is exceeded and budgetMode is "fail"
+     */
+    public void endStep() {
+        long stepMillis = stepNanos / 1_000_000;
+        logger.info("Step {} of '{}': {} WebDriver command(s) in {} ms [network: {}]", stepIndex, scenarioName, stepCommands, stepMillis,
+                networkProfile);
+
+        StringBuilder overruns = new StringBuilder();
+        if (stepCommandBudget > 0 && stepCommands > stepCommandBudget) {
+            overruns.append(String.format(" commands %d > budget %d;", stepCommands, stepCommandBudget));
+        }
+        if (stepTimeBudgetMs > 0 && stepMillis > stepTimeBudgetMs) {
+            overruns.append(String.format(" time %d ms > budget %d ms;", stepMillis, stepTimeBudgetMs));
+        }
+        if (overruns.length() == 0) {
+            return;
+        }
+        String message = String.format("Step %d of '%s' exceeded its WebDriver budget:%s [network: %s]", stepIndex, scenarioName, overruns,
+                networkProfile);
+        if (failOnBudget) {
+            logger.error(message);
+            throw new AssertionError(message);
+        }
+        logger.warn(message);
+    }
+
+    /**
+     * Logs the scenario totals.
+     */
+    public void endScenario() {
+        logger.info("Scenario '{}': {} WebDriver command(s) in {} ms across {} step(s) [network: {}]",
+                scenarioName, scenarioCommands, scenarioNanos / 1_000_000, stepIndex, networkProfile);
+    }
+
+    public String getNetworkProfile() {
+        return networkProfile;
+    }
+
+    public long getScenarioCommands() {
+        return scenarioCommands;
+    }
+
+    public long getScenarioMillis() {
+        return scenarioNanos / 1_000_000;
+    }
+}
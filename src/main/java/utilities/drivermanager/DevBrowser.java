@@ -0,0 +1,185 @@
+package utilities.drivermanager;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import utilities.config.PropertyFileReader;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Developer mode ({@code devMode=true}): sessions attach to a long-lived Chrome or Edge through its remote-debugging
+ * address ({@code devBrowserAddress}) instead of launching a browser, and the browser is reset rather than closed
+ * when a scenario ends.
+ * <p>
+ * If nothing is listening on the address, the browser is started detached with its own profile
+ * ({@code devBrowserProfile}) and stays open after the run, so the next {@code mvn test} attaches to it in a
+ * fraction of the launch time.
+ */
+public final class DevBrowser {
+    private static final Logger logger = LogManager.getLogger(DevBrowser.class);
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final Duration LAUNCH_TIMEOUT = Duration.ofSeconds(15);
+    private static volatile Predicate<WebDriver> keepPage = driver -> false;
+
+    private DevBrowser() {
+    }
+
+    /**
+     * Returns whether sessions for the browser should attach to the developer browser.
+     *
+     * @param browser the browser name
+     * @return true if dev mode is on and the browser is Chromium-based
+     */
+    public static boolean isEnabled(String browser) {
+        if (!config.getBooleanPropertyOrDefault("devMode", false)) {
+            return false;
+        }
+        if ("chrome".equalsIgnoreCase(browser) || "edge".equalsIgnoreCase(browser)) {
+            return true;
+        }
+        logger.warn("Dev mode only supports Chrome and Edge; launching {} normally.", browser);
+        return false;
+    }
+
+    /**
+     * Points the options at the developer browser, starting it first if it is not running.
+     *
+     * @param options the Chrome or Edge options of the new session
+     * @param browser the browser name
+     */
+    public static void attach(ChromiumOptions<?> options, String browser) {
+        String address = config.getPropertyOrDefault("devBrowserAddress", "127.0.0.1:9222");
+        long start = System.nanoTime();
+        if (!isListening(address)) {
+            launch(browser, address);
+        }
+        options.setExperimentalOption("debuggerAddress", address);
+        logger.info("Attaching to dev browser at {} ({} ms)", address, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Registers the check deciding whether {@link #reset} may leave the current page in place instead of blanking it.
+     *
+     * @param predicate returns true for a page the next session can reuse
+     */
+    public static void keepPageWhen(Predicate<WebDriver> predicate) {
+        keepPage = predicate;
+    }
+
+    /**
+     * Returns the browser to a clean state for the next scenario: one window, no cookies, storage or cache. The window
+     * is blanked unless the predicate registered with {@link #keepPageWhen} accepts the page it shows.
+     *
+     * @param driver the driver attached to the developer browser
+     */
+    public static void reset(WebDriver driver) {
+        long start = System.nanoTime();
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (String handle : handles.subList(1, handles.size())) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+            driver.switchTo().window(handles.get(0));
+            String origin = origin(driver.getCurrentUrl());
+            if (driver instanceof HasCdp) {
+                HasCdp cdp = (HasCdp) driver;
+                cdp.executeCdpCommand("Network.clearBrowserCookies", Map.of());
+                cdp.executeCdpCommand("Network.clearBrowserCache", Map.of());
+                if (origin != null) {
+                    cdp.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+                }
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+            // A page the scenario left untouched (same cookies and storage after the clearing) stays for the next
+            // session, whose first navigation can then skip reloading it
+            if (!keepPage.test(driver)) {
+                driver.get("about:blank");
+            }
+            logger.info("Dev browser reset in {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (WebDriverException e) {
+            logger.warn("Failed to reset dev browser: {}", e.getMessage());
+        }
+    }
+
+    private static String origin(String url) {
+        if (url == null || !url.startsWith("http")) {
+            return null;
+        }
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    private static boolean isListening(String address) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://" + address + "/json/version")).timeout(Duration.ofSeconds(1)).build();
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Starts the browser detached from this JVM with remote debugging enabled and waits until it accepts connections.
+     */
+    private static void launch(String browser, String address) {
+        WebDriverManager manager = "edge".equalsIgnoreCase(browser) ? WebDriverManager.edgedriver() : WebDriverManager.chromedriver();
+        Path binary = manager.getBrowserPath()
+                .orElseThrow(() -> new IllegalStateException("Could not find a " + browser + " installation for dev mode."));
+        String profile = config.getPropertyOrDefault("devBrowserProfile",
+                Paths.get(System.getProperty("java.io.tmpdir"), "selenium-bdd-dev-profile").toString());
+
+        List<String> command = new ArrayList<>(List.of(binary.toString(),
+                "--remote-debugging-port=" + address.substring(address.lastIndexOf(':') + 1),
+                "--user-data-dir=" + profile,
+                "--no-first-run",
+                "--no-default-browser-check"));
+        if (config.getBooleanPropertyOrDefault("headless", false)) {
+            command.add("--headless=new");
+        }
+        command.add("about:blank");
+        try {
+            new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start dev browser: " + e.getMessage(), e);
+        }
+
+        long deadline = System.nanoTime() + LAUNCH_TIMEOUT.toNanos();
+        while (!isListening(address)) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Dev browser did not open its debugging port at " + address);
+            }
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the dev browser", e);
+            }
+        }
+        logger.info("Dev browser started at {} with profile {}; it stays open after the run.", address, profile);
+    }
+}
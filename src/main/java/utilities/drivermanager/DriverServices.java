@@ -0,0 +1,127 @@
+package utilities.drivermanager;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one driver-service process (chromedriver, msedgedriver) per browser type for the whole JVM and creates
+ * every session against it, instead of starting a new service process and port for each driver.
+ * <p>
+ * Enabled with {@code sharedDriverService=true}. Services are started on first use and stopped by a JVM shutdown hook.
+ * Firefox is not supported because geckodriver only accepts one session per process.
+ */
+public final class DriverServices {
+    private static final Logger logger = LogManager.getLogger(DriverServices.class);
+    private static final Map<String, DriverService> services = new ConcurrentHashMap<>();
+    private static final Map<String, Long> serviceStartNanos = new ConcurrentHashMap<>();
+    private static final AtomicLong sessionsCreated = new AtomicLong();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverServices::stopAll, "driver-service-shutdown"));
+    }
+
+    private DriverServices() {
+    }
+
+    /**
+     * Returns whether the browser can share a driver service between sessions.
+     *
+     * @param browser the browser name
+     * @return true for chrome and edge
+     */
+    public static boolean supports(String browser) {
+        return "chrome".equalsIgnoreCase(browser) || "edge".equalsIgnoreCase(browser);
+    }
+
+    /**
+     * Creates a new session on the browser's shared driver service, starting the service if needed.
+     * <p>
+     * The returned driver is augmented so Chromium features such as network conditions and DevTools remain available.
+     *
+     * @param browser the browser name ("chrome" or "edge")
+     * @param options the browser options for the session
+     * @return the new WebDriver session
+     */
+    public static WebDriver newSession(String browser, Capabilities options) {
+        DriverService service = services.computeIfAbsent(browser.toLowerCase(), DriverServices::startService);
+        WebDriver driver = new Augmenter().augment(new RemoteWebDriver(service.getUrl(), options));
+        sessionsCreated.incrementAndGet();
+        return driver;
+    }
+
+    private static DriverService startService(String browser) {
+        long start = System.nanoTime();
+        DriverService service;
+        switch (browser) {
+            case "chrome":
+                service = new ChromeDriverService.Builder().usingAnyFreePort().build();
+                break;
+
+            case "edge":
+                service = new EdgeDriverService.Builder().usingAnyFreePort().build();
+                break;
+
+            default:
+                throw new IllegalArgumentException("Shared driver service is not supported for browser: " + browser);
+        }
+        try {
+            service.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start shared " + browser + " driver service: " + e.getMessage(), e);
+        }
+        long elapsed = System.nanoTime() - start;
+        serviceStartNanos.put(browser, elapsed);
+        logger.info("Shared {} driver service started at {} in {} ms", browser, service.getUrl(), elapsed / 1_000_000);
+        return service;
+    }
+
+    /**
+     * Stops every shared driver service; called from the JVM shutdown hook.
+     */
+    public static void stopAll() {
+        services.forEach((browser, service) -> {
+            try {
+                service.stop();
+                logger.info("Shared {} driver service stopped.", browser);
+            } catch (RuntimeException e) {
+                logger.error("Failed to stop shared {} driver service: {}", browser, e.getMessage(), e);
+            }
+        });
+        services.clear();
+    }
+
+    /**
+     * Logs how many sessions shared how many service processes, the driver processes still alive under this JVM,
+     * and the startup time saved compared to one service per session.
+     */
+    public static void logStatistics() {
+        if (services.isEmpty()) {
+            return;
+        }
+        long sessions = sessionsCreated.get();
+        long averageStartNanos = (long) serviceStartNanos.values().stream().mapToLong(Long::longValue).average().orElse(0);
+        long saved = Math.max(0, sessions - services.size()) * averageStartNanos;
+        long driverProcesses = ProcessHandle.current().descendants()
+                .filter(process -> process.info().command().map(DriverServices::isDriverCommand).orElse(false))
+                .count();
+        logger.info("Shared driver services: {} session(s) on {} service process(es) ({} driver process(es) running); "
+                        + "startup saved ~{} ms at {} ms per service start",
+                sessions, services.size(), driverProcesses, saved / 1_000_000, averageStartNanos / 1_000_000);
+    }
+
+    private static boolean isDriverCommand(String command) {
+        return command.contains("chromedriver") || command.contains("msedgedriver") || command.contains("geckodriver");
+    }
+}
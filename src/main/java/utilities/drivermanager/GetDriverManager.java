@@ -1,65 +1,316 @@
 package utilities.drivermanager;
 
 import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.UnexpectedAlertBehaviour;
 import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.htmlunit.options.HtmlUnitDriverOptions;
+import org.openqa.selenium.remote.AbstractDriverOptions;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 import utilities.config.PropertyFileReader;
+import utilities.jfr.DriverLaunchEvent;
+import utilities.jfr.DriverQuitEvent;
+import utilities.tracing.StartupProfiler;
+import utilities.tracing.Tracer;
 
-public class GetDriverManager {
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+public class GetDriverManager {
+    private static final Logger logger = LogManager.getLogger(GetDriverManager.class);
     private static final ThreadLocal<WebDriver> driverThreadLocal = new ThreadLocal<>();
-    private static final PropertyFileReader config = new PropertyFileReader();
+    private static final ThreadLocal<CommandInstrumentation> instrumentationThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<String> sessionIdThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<String> browserThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<Path> profileThreadLocal = new ThreadLocal<>();
+    private static final ThreadLocal<NetworkProfile> networkProfileThreadLocal = new ThreadLocal<>();
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final List<Consumer<WebDriver>> sessionEndListeners = new CopyOnWriteArrayList<>();
+    private static final AtomicInteger openSessions = new AtomicInteger();
+    private static final Set<SessionKey> openDrivers = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Registers a callback invoked with the driver whenever a session is quit, so per-session caches can be dropped.
+     *
+     * @param listener the callback to invoke
+     */
+    public static void onSessionEnd(Consumer<WebDriver> listener) {
+        sessionEndListeners.add(listener);
+    }
+
+    /**
+     * Returns whether the driver belongs to a session that has been started and not yet quit.
+     *
+     * @param driver the driver returned by {@link #getDriver(String)}
+     * @return true while the session is open
+     */
+    public static boolean isSessionOpen(WebDriver driver) {
+        return openDrivers.contains(new SessionKey(driver));
+    }
 
     /**
      * Returns a WebDriver instance for the specified browser.
      *
-     * @param browser the browser to use ("chrome", "firefox", "edge").
+     * @param browser the browser to use ("chrome", "firefox", "edge", "htmlunit").
      * @return a WebDriver instance.
      */
     public static WebDriver getDriver(String browser) {
+        if (driverThreadLocal.get() != null && SessionWatchdog.isKilled()) {
+            if (SessionWatchdog.inScenario()) {
+                // The running scenario fails; its teardown releases the session and the next scenario gets a new one
+                throw new WebDriverException("The session watchdog killed this session: " + SessionWatchdog.getKillReason());
+            }
+            logger.warn("The session watchdog killed this thread's {} session; launching a replacement.", browserThreadLocal.get());
+            quitDriver();
+        }
         if (driverThreadLocal.get() == null) {
+            DriverLaunchEvent launchEvent = new DriverLaunchEvent();
+            launchEvent.begin();
+            long launchStart = System.nanoTime();
             WebDriver driver = initializeDriver(browser);
+            launchEvent.end();
+            if (!(driver instanceof HasBrowserContext)) {
+                ProfileTemplates.recordLaunch(profileThreadLocal.get() != null, System.nanoTime() - launchStart);
+            }
+            openSessions.incrementAndGet();
+            browserThreadLocal.set(browser);
+            NetworkProfile networkProfile = NetworkProfile.fromConfig(config).apply(driver);
+            networkProfileThreadLocal.set(networkProfile);
+            Tracer.setNetworkProfile(networkProfile.getName());
+            String sessionId = null;
+            if (driver instanceof HasBrowserContext) {
+                sessionId = ((HasBrowserContext) driver).getBrowserContextId();
+            } else if (driver instanceof RemoteWebDriver) {
+                sessionId = String.valueOf(((RemoteWebDriver) driver).getSessionId());
+            }
+            sessionIdThreadLocal.set(sessionId);
+            Tracer.setSessionId(sessionId);
+            if (launchEvent.shouldCommit()) {
+                launchEvent.browser = browser;
+                launchEvent.sessionId = sessionId;
+                launchEvent.networkProfile = networkProfile.getName();
+                launchEvent.commit();
+            }
+            WebDriver undecorated = driver;
+            Capabilities capabilities = driver instanceof HasCapabilities ? ((HasCapabilities) driver).getCapabilities() : null;
+            if (config.getBooleanPropertyOrDefault("instrumentation", true)) {
+                CommandInstrumentation instrumentation = new CommandInstrumentation(networkProfile.getName());
+                driver = new EventFiringDecorator<>(instrumentation).decorate(driver);
+                instrumentationThreadLocal.set(instrumentation);
+            }
             driverThreadLocal.set(driver);
+            openDrivers.add(new SessionKey(driver));
+            // Shared services, shared context browsers and the detached dev browser outlive this session
+            boolean ownsProcesses = !(driver instanceof HasBrowserContext) && !DevBrowser.isEnabled(browser)
+                    && !(config.getBooleanPropertyOrDefault("sharedDriverService", false) && DriverServices.supports(browser));
+            SessionWatchdog.watch(undecorated, capabilities, instrumentationThreadLocal.get(), browser, sessionId, ownsProcesses);
+            SessionWatchdog.recordReplacement(sessionId);
         }
         return driverThreadLocal.get();
     }
 
     /**
-     * Initializes a WebDriver based on the specified browser.
+     * Returns the command instrumentation attached to the current thread's driver.
+     *
+     * @return the CommandInstrumentation, or null if instrumentation is disabled or no driver exists
+     */
+    public static CommandInstrumentation getInstrumentation() {
+        return instrumentationThreadLocal.get();
+    }
+
+    /**
+     * Returns the browser of the current thread's driver.
+     *
+     * @return the browser name, or null if no driver exists
+     */
+    public static String getBrowser() {
+        return browserThreadLocal.get();
+    }
+
+    /**
+     * Returns the network profile in effect for the current thread's driver.
+     *
+     * @return the active NetworkProfile, or {@link NetworkProfile#NONE} if no driver exists
+     */
+    public static NetworkProfile getNetworkProfile() {
+        NetworkProfile networkProfile = networkProfileThreadLocal.get();
+        return networkProfile != null ? networkProfile : NetworkProfile.NONE;
+    }
+
+    /**
+     * Returns the execution mode used for the browser: "context" when {@code executionMode=context} and the browser
+     * supports browser contexts, "process" otherwise.
+     *
+     * @param browser the browser name
+     * @return the effective execution mode
+     */
+    public static String getExecutionMode(String browser) {
+        boolean contextMode = "context".equalsIgnoreCase(config.getPropertyOrDefault("executionMode", "process"));
+        return contextMode && BrowserContexts.supports(browser) ? "context" : "process";
+    }
+
+    /**
+     * Initializes a WebDriver based on the specified browser and execution mode.
      *
      * @param browser the browser to initialize.
-     * @return the initialized WebDriver.
+     * @return the initialized WebDriver, or a driver bound to a new browser context in context mode.
      */
     private static WebDriver initializeDriver(String browser) {
+        if ("context".equalsIgnoreCase(config.getPropertyOrDefault("executionMode", "process"))) {
+            if ("context".equals(getExecutionMode(browser))) {
+                WebDriver driver = BrowserContexts.newContext(browser, GetDriverManager::launchBrowser);
+                // A profile cloned for the shared browser lives until JVM exit, not until this context quits
+                profileThreadLocal.remove();
+                maximize(driver);
+                return driver;
+            }
+            logger.warn("Browser contexts are not supported for {}; launching a browser per scenario.", browser);
+        }
+        return launchBrowser(browser);
+    }
+
+    /**
+     * Launches a new browser session.
+     *
+     * @param browser the browser to launch.
+     * @return the launched WebDriver.
+     */
+    private static WebDriver launchBrowser(String browser) {
         WebDriver driver;
+        boolean sharedServiceRequested = config.getBooleanPropertyOrDefault("sharedDriverService", false);
+        if (sharedServiceRequested && !DriverServices.supports(browser)) {
+            logger.warn("Shared driver service is not supported for {}; starting a service per session.", browser);
+        }
+        boolean sharedService = sharedServiceRequested && DriverServices.supports(browser);
         switch (browser.toLowerCase()) {
             case "chrome":
-                WebDriverManager.chromedriver().setup();
-                driver = new ChromeDriver(getChromeOptions());
+                resolveDriver(WebDriverManager.chromedriver());
+                ChromeOptions chromeOptions = getChromeOptions();
+                if (DevBrowser.isEnabled(browser)) {
+                    DevBrowser.attach(chromeOptions, browser);
+                } else if (ProfileTemplates.isEnabled()) {
+                    chromeOptions.addArguments("--user-data-dir=" + cloneProfile(browser,
+                            template -> versionAndQuit(new ChromeDriver(getChromeOptions().addArguments("--user-data-dir=" + template)))));
+                }
+                driver = launch(() -> sharedService ? DriverServices.newSession(browser, chromeOptions) : new ChromeDriver(chromeOptions));
                 break;
 
             case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                driver = new FirefoxDriver(getFirefoxOptions());
+                resolveDriver(WebDriverManager.firefoxdriver());
+                FirefoxOptions firefoxOptions = getFirefoxOptions();
+                if (ProfileTemplates.isEnabled()) {
+                    firefoxOptions.addArguments("-profile", cloneProfile(browser,
+                            template -> versionAndQuit(new FirefoxDriver(getFirefoxOptions().addArguments("-profile", template.toString())))).toString());
+                }
+                driver = launch(() -> new FirefoxDriver(firefoxOptions));
+                break;
+
+            case "htmlunit":
+                driver = launch(() -> new HtmlUnitDriver(getHtmlUnitOptions()));
                 break;
 
             case "edge":
-                WebDriverManager.edgedriver().setup();
-                driver = new EdgeDriver(getEdgeOptions());
+                resolveDriver(WebDriverManager.edgedriver());
+                EdgeOptions edgeOptions = getEdgeOptions();
+                if (DevBrowser.isEnabled(browser)) {
+                    DevBrowser.attach(edgeOptions, browser);
+                } else if (ProfileTemplates.isEnabled()) {
+                    edgeOptions.addArguments("--user-data-dir=" + cloneProfile(browser,
+                            template -> versionAndQuit(new EdgeDriver(getEdgeOptions().addArguments("--user-data-dir=" + template)))));
+                }
+                driver = launch(() -> sharedService ? DriverServices.newSession(browser, edgeOptions) : new EdgeDriver(edgeOptions));
                 break;
 
             default:
                 throw new IllegalArgumentException("Invalid browser name: " + browser);
         }
-        driver.manage().window().maximize();
+        if (profileThreadLocal.get() != null && driver instanceof HasCapabilities) {
+            ProfileTemplates.verify(browser, ((HasCapabilities) driver).getCapabilities().getBrowserVersion());
+        }
+        maximize(driver);
         return driver;
     }
 
+    /**
+     * Reads the browser version of a session that initialized a profile template, then quits it.
+     *
+     * @param driver the session launched against the template directory.
+     * @return the browserVersion capability.
+     */
+    private static String versionAndQuit(RemoteWebDriver driver) {
+        try {
+            return driver.getCapabilities().getBrowserVersion();
+        } finally {
+            driver.quit();
+        }
+    }
+
+    /**
+     * Resolves the driver binary through WebDriverManager, timed as a startup phase.
+     *
+     * @param manager the WebDriverManager of the browser.
+     */
+    private static void resolveDriver(WebDriverManager manager) {
+        try (StartupProfiler.Phase ignored = StartupProfiler.phase("driver-resolution")) {
+            manager.setup();
+        }
+    }
+
+    /**
+     * Creates the driver session, timed as a startup phase.
+     *
+     * @param launcher creates the session.
+     * @return the new WebDriver.
+     */
+    private static WebDriver launch(Supplier<WebDriver> launcher) {
+        try (StartupProfiler.Phase ignored = StartupProfiler.phase("browser-launch")) {
+            return launcher.get();
+        }
+    }
+
+    /**
+     * Maximizes the window once per session, timed as a startup phase.
+     *
+     * @param driver the WebDriver.
+     */
+    private static void maximize(WebDriver driver) {
+        try (StartupProfiler.Phase ignored = StartupProfiler.phase("window-maximize")) {
+            driver.manage().window().maximize();
+        }
+    }
+
+    /**
+     * Clones the browser's profile template for a new session and remembers it for cleanup on quit.
+     *
+     * @param browser     the browser name.
+     * @param initializer launches and quits the browser once to build the template, returning its version.
+     * @return the cloned profile directory.
+     */
+    private static Path cloneProfile(String browser, Function<Path, String> initializer) {
+        Path profile = ProfileTemplates.newProfile(browser, initializer);
+        profileThreadLocal.set(profile);
+        return profile;
+    }
+
     /**
      * Returns Chrome options for customization.
      *
@@ -67,7 +318,9 @@ public class GetDriverManager {
      */
     private static ChromeOptions getChromeOptions() {
         ChromeOptions options = new ChromeOptions();
-        options.addArguments("--incognito"); // Open browser in incognito mode
+        if (!ProfileTemplates.isEnabled()) {
+            options.addArguments("--incognito"); // Open browser in incognito mode; a cloned profile is already fresh
+        }
         options.addArguments("--disable-extensions"); // Disable extensions
         options.addArguments("--disable-infobars"); // Remove "Chrome is being controlled by automated software"
         options.addArguments("--disable-popup-blocking"); // Disable popup blocking
@@ -79,7 +332,7 @@ public class GetDriverManager {
             options.addArguments("--window-size=1920,1080"); // Set window size for headless mode
             options.addArguments("--disable-gpu"); // Disable GPU for compatibility with headless mode
         }
-        return options;
+        return applyPromptHandling(options);
     }
 
     /**
@@ -89,7 +342,9 @@ public class GetDriverManager {
      */
     private static FirefoxOptions getFirefoxOptions() {
         FirefoxOptions options = new FirefoxOptions();
-        options.addArguments("--private"); // Open browser in private mode
+        if (!ProfileTemplates.isEnabled()) {
+            options.addArguments("--private"); // Open browser in private mode; a cloned profile is already fresh
+        }
         options.addPreference("dom.webnotifications.enabled", false); // Disable browser notifications
         options.addPreference("media.volume_scale", "0.0"); // Mute any audio in the browser
         options.addPreference("browser.helperApps.neverAsk.saveToDisk", "application/pdf"); // Auto-download PDFs
@@ -97,7 +352,7 @@ public class GetDriverManager {
         if (Boolean.parseBoolean(config.getProperty("headless"))) {
             options.addArguments("--headless"); // Run in headless mode
         }
-        return options;
+        return applyPromptHandling(options);
     }
 
 
@@ -108,7 +363,9 @@ public class GetDriverManager {
      */
     private static EdgeOptions getEdgeOptions() {
         EdgeOptions options = new EdgeOptions();
-        options.addArguments("--inprivate"); // Open browser in private mode
+        if (!ProfileTemplates.isEnabled()) {
+            options.addArguments("--inprivate"); // Open browser in private mode; a cloned profile is already fresh
+        }
         options.addArguments("--disable-extensions"); // Disable extensions
         options.addArguments("--disable-popup-blocking"); // Disable popup blocking
         options.addArguments("--disable-notifications"); // Disable browser notifications
@@ -119,6 +376,40 @@ public class GetDriverManager {
             options.addArguments("--window-size=1920,1080"); // Set window size for headless mode
             options.addArguments("--disable-gpu");
         }
+        return applyPromptHandling(options);
+    }
+
+    /**
+     * Applies the configured handling of unexpected alerts and prompts: the {@code unhandledPromptBehavior} capability,
+     * and a BiDi connection when AlertHelper should follow prompts through browser events ({@code alertEvents=true}).
+     *
+     * @param options the browser options
+     * @return the same options
+     */
+    private static <O extends AbstractDriverOptions<?>> O applyPromptHandling(O options) {
+        String behaviour = config.getPropertyOrDefault("unhandledPromptBehavior", "");
+        if (!behaviour.isEmpty()) {
+            UnexpectedAlertBehaviour value = UnexpectedAlertBehaviour.fromString(behaviour);
+            if (value == null) {
+                throw new IllegalArgumentException("Unknown unhandledPromptBehavior: " + behaviour);
+            }
+            options.setUnhandledPromptBehaviour(value);
+        }
+        if (config.getBooleanPropertyOrDefault("alertEvents", false)) {
+            options.setCapability("webSocketUrl", true);
+        }
+        return options;
+    }
+
+    /**
+     * Returns HtmlUnit options for the in-JVM driver used by scenarios that do not need a real browser.
+     *
+     * @return HtmlUnitDriverOptions.
+     */
+    private static HtmlUnitDriverOptions getHtmlUnitOptions() {
+        HtmlUnitDriverOptions options = new HtmlUnitDriverOptions();
+        options.setJavaScriptEnabled(config.getBooleanPropertyOrDefault("htmlunitJavascript", true)); // Run page scripts
+        options.setDownloadImages(false); // Images are never rendered, so skip fetching them
         return options;
     }
 
@@ -128,8 +419,44 @@ public class GetDriverManager {
     public static void quitDriver() {
         WebDriver driver = driverThreadLocal.get();
         if (driver != null) {
-            driver.quit();
-            driverThreadLocal.remove();
+            DriverQuitEvent quitEvent = new DriverQuitEvent();
+            quitEvent.begin();
+            BrowserProcesses.recordScenario(openSessions.get());
+            boolean killed = SessionWatchdog.isKilled();
+            SessionWatchdog.acknowledgeKill();
+            try {
+                if (!killed && DevBrowser.isEnabled(browserThreadLocal.get())) {
+                    // Closes only the chromedriver session; the attached browser keeps running
+                    DevBrowser.reset(driver);
+                }
+                driver.quit();
+                quitEvent.succeeded = true;
+            } catch (WebDriverException e) {
+                if (!killed) {
+                    throw e;
+                }
+                // Expected: the watchdog already killed the browser and driver service
+                logger.info("Released killed session {}: {}", sessionIdThreadLocal.get(), e.getClass().getSimpleName());
+            } finally {
+                SessionWatchdog.unwatch();
+                quitEvent.end();
+                if (quitEvent.shouldCommit()) {
+                    quitEvent.sessionId = sessionIdThreadLocal.get();
+                    quitEvent.commit();
+                }
+                openSessions.decrementAndGet();
+                sessionIdThreadLocal.remove();
+                browserThreadLocal.remove();
+                ProfileTemplates.release(profileThreadLocal.get());
+                profileThreadLocal.remove();
+                networkProfileThreadLocal.remove();
+                driverThreadLocal.remove();
+                instrumentationThreadLocal.remove();
+                Tracer.setSessionId(null);
+                Tracer.setNetworkProfile(null);
+                openDrivers.remove(new SessionKey(driver));
+                sessionEndListeners.forEach(listener -> listener.accept(driver));
+            }
         }
     }
 }
@@ -0,0 +1,15 @@
+package utilities.drivermanager;
+
+/**
+ * Implemented by drivers handed out in {@code executionMode=context}, where each scenario runs in its own isolated
+ * browser context inside a shared browser process.
+ */
+public interface HasBrowserContext {
+
+    /**
+     * Returns the DevTools id of the browser context this driver is bound to.
+     *
+     * @return the browser context id
+     */
+    String getBrowserContextId();
+}
@@ -0,0 +1,122 @@
+package utilities.drivermanager;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumNetworkConditions;
+import org.openqa.selenium.chromium.HasNetworkConditions;
+import utilities.config.PropertyFileReader;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A named set of network conditions (latency, download and upload throughput) emulated by the browser.
+ * <p>
+ * Select one with {@code networkProfile} in Config.properties: {@code none}, {@code slow-3g}, {@code 3g},
+ * {@code 4g}, {@code dsl}, {@code cable}, or {@code custom} with {@code networkProfile.custom.latencyMs},
+ * {@code .downloadKbps} and {@code .uploadKbps} (kbit/s). Emulation uses Chromium's network conditions command, so it only
+ * applies to Chrome and Edge; other browsers run unthrottled and report the profile as {@code none}.
+ */
+public final class NetworkProfile {
+    private static final Logger logger = LogManager.getLogger(NetworkProfile.class);
+
+    public static final NetworkProfile NONE = new NetworkProfile("none", 0, 0, 0);
+
+    // Presets follow the Chrome DevTools and WebPageTest connection profiles
+    private static final Map<String, NetworkProfile> PRESETS = Map.of(
+            "slow-3g", new NetworkProfile("slow-3g", 2000, 400, 400),
+            "3g", new NetworkProfile("3g", 563, 1440, 675),
+            "4g", new NetworkProfile("4g", 170, 9000, 9000),
+            "dsl", new NetworkProfile("dsl", 50, 1500, 384),
+            "cable", new NetworkProfile("cable", 28, 5000, 1000));
+
+    private final String name;
+    private final int latencyMs;
+    private final int downloadKbps;
+    private final int uploadKbps;
+
+    private NetworkProfile(String name, int latencyMs, int downloadKbps, int uploadKbps) {
+        this.name = name;
+        this.latencyMs = latencyMs;
+        this.downloadKbps = downloadKbps;
+        this.uploadKbps = uploadKbps;
+    }
+
+    /**
+     * Resolves the profile selected by {@code networkProfile} in Config.properties.
+     *
+     * @param config the configuration to read
+     * @return the configured profile, or {@link #NONE} if none is configured
+     * @throws IllegalArgumentException if the profile name is unknown
+     */
+    public static NetworkProfile fromConfig(PropertyFileReader config) {
+        String name = config.getPropertyOrDefault("networkProfile", "none").trim().toLowerCase(Locale.ROOT);
+        if (name.isEmpty() || NONE.name.equals(name)) {
+            return NONE;
+        }
+        if ("custom".equals(name)) {
+            int latencyMs = config.getIntPropertyOrDefault("networkProfile.custom.latencyMs", 0);
+            int downloadKbps = config.getIntPropertyOrDefault("networkProfile.custom.downloadKbps", 0);
+            int uploadKbps = config.getIntPropertyOrDefault("networkProfile.custom.uploadKbps", 0);
+            // Encode the values in the name so custom runs with different settings are never grouped together
+            return new NetworkProfile(String.format("custom-%dms-%d-%dkbps", latencyMs, downloadKbps, uploadKbps),
+                    latencyMs, downloadKbps, uploadKbps);
+        }
+        NetworkProfile profile = PRESETS.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Invalid network profile: " + name + ". Use none, custom or one of " + PRESETS.keySet());
+        }
+        return profile;
+    }
+
+    /**
+     * Applies this profile to a newly created or leased driver.
+     *
+     * @param driver the undecorated driver
+     * @return the profile actually in effect: this profile, or {@link #NONE} if the browser cannot emulate it
+     */
+    public NetworkProfile apply(WebDriver driver) {
+        if (this == NONE) {
+            return NONE;
+        }
+        if (!(driver instanceof HasNetworkConditions)) {
+            logger.warn("Network profile '{}' requires a Chromium browser; running unthrottled.", name);
+            return NONE;
+        }
+        ChromiumNetworkConditions conditions = new ChromiumNetworkConditions();
+        conditions.setLatency(Duration.ofMillis(latencyMs));
+        // chromedriver passes throughput to Network.emulateNetworkConditions in bytes/s; Chromium treats 0 as "no limit"
+        conditions.setDownloadThroughput(toBytesPerSecond(downloadKbps));
+        conditions.setUploadThroughput(toBytesPerSecond(uploadKbps));
+        ((HasNetworkConditions) driver).setNetworkConditions(conditions);
+        logger.info("Network profile applied: {}", this);
+        return this;
+    }
+
+    private static int toBytesPerSecond(int kbps) {
+        return kbps * 1000 / 8;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLatencyMs() {
+        return latencyMs;
+    }
+
+    public int getDownloadKbps() {
+        return downloadKbps;
+    }
+
+    public int getUploadKbps() {
+        return uploadKbps;
+    }
+
+    @Override
+    public String toString() {
+        return this == NONE ? name : String.format("%s (latency %d ms, down %d kbps, up %d kbps)", name, latencyMs, downloadKbps, uploadKbps);
+    }
+}
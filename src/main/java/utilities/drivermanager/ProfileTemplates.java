@@ -0,0 +1,290 @@
+package utilities.drivermanager;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utilities.config.PropertyFileReader;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Pre-initialized browser profile templates, cloned onto a RAM-backed directory for every session
+ * ({@code profileTemplates=true}).
+ * <p>
+ * The first session of each browser launches it once against an empty profile so first-run initialization happens
+ * only then, trims caches and crash data from the result, and marks it ready. The template lives under
+ * {@code /dev/shm} when available (or {@code profileTemplateRoot}) in a directory named after the browser and its
+ * version, and is reused by later runs. The version is only known once a browser is running, so the first session of
+ * a run starts from the newest template and checks it against the launched browser; after an upgrade the template is
+ * rebuilt for the following sessions and the outdated one is deleted at exit. Every session gets its own copy, which is
+ * deleted when the session quits, so sessions stay as isolated as in incognito mode.
+ * <p>
+ * Template builds are timed separately from browser launches, so the launch statistics compare like with like.
+ */
+public final class ProfileTemplates {
+    private static final Logger logger = LogManager.getLogger(ProfileTemplates.class);
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final String READY_MARKER = ".template-ready";
+
+    // Regenerated by the browser on demand; dropping them keeps clones small and fast to copy
+    private static final Set<String> TRIMMED = Set.of("Cache", "Code Cache", "GPUCache", "ShaderCache", "GrShaderCache",
+            "GraphiteDawnCache", "DawnCache", "Crashpad", "Crash Reports", "BrowserMetrics", "component_crx_cache",
+            "Safe Browsing", "optimization_guide_model_store", "cache2", "startupCache", "crashes", "minidumps",
+            "datareporting", "saved-telemetry-pings");
+    // Lock files tie a profile to a running browser and must never be copied
+    private static final Set<String> LOCKS = Set.of("SingletonLock", "SingletonSocket", "SingletonCookie", "lock", ".parentlock", "parent.lock");
+
+    private static final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private static final Set<Path> clones = ConcurrentHashMap.newKeySet();
+    private static final Set<Path> outdated = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong buildCount = new AtomicLong();
+    private static final AtomicLong buildNanos = new AtomicLong();
+    // Time this thread spent building a template during its current launch, excluded from the launch time
+    private static final ThreadLocal<Long> pendingBuildNanos = ThreadLocal.withInitial(() -> 0L);
+    private static final Map<Boolean, AtomicLong> launchCounts = Map.of(true, new AtomicLong(), false, new AtomicLong());
+    private static final Map<Boolean, AtomicLong> launchNanos = Map.of(true, new AtomicLong(), false, new AtomicLong());
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            clones.forEach(ProfileTemplates::delete);
+            outdated.forEach(ProfileTemplates::delete);
+        }, "profile-clone-cleanup"));
+    }
+
+    private ProfileTemplates() {
+    }
+
+    /**
+     * Returns whether sessions should run on cloned profile templates.
+     *
+     * @return true if {@code profileTemplates=true}
+     */
+    public static boolean isEnabled() {
+        return config.getBooleanPropertyOrDefault("profileTemplates", false);
+    }
+
+    /**
+     * Returns a fresh copy of the browser's profile template, building the template first if needed.
+     *
+     * @param browser     the browser name
+     * @param initializer launches and quits the browser once against the given empty profile directory and returns the
+     *                    browser version reported by that session
+     * @return the directory of the new profile copy
+     */
+    public static Path newProfile(String browser, Function<Path, String> initializer) {
+        Path template = templates.computeIfAbsent(browser.toLowerCase(), name -> findOrBuildTemplate(name, initializer)).directory;
+        Path clone = root().resolve("sessions").resolve(browser.toLowerCase() + "-" + UUID.randomUUID());
+        long start = System.nanoTime();
+        copy(template, clone);
+        clones.add(clone);
+        logger.debug("Cloned {} profile template to {} in {} ms", browser, clone, (System.nanoTime() - start) / 1_000_000);
+        return clone;
+    }
+
+    /**
+     * Deletes a profile copy once its browser has quit.
+     *
+     * @param clone the profile directory returned by {@link #newProfile}
+     */
+    public static void release(Path clone) {
+        if (clone != null && clones.remove(clone)) {
+            delete(clone);
+        }
+    }
+
+    /**
+     * Checks the template a session was cloned from against the version of the browser that was launched. If they
+     * differ, the browser was upgraded since the template was built: the template is dropped, later sessions rebuild it
+     * for the new version, and the outdated directory is deleted at exit.
+     *
+     * @param browser        the browser name
+     * @param browserVersion the {@code browserVersion} capability of the launched session
+     */
+    public static void verify(String browser, String browserVersion) {
+        Template template = templates.get(browser.toLowerCase());
+        if (template == null || browserVersion == null || browserVersion.equals(template.version)) {
+            return;
+        }
+        if (templates.remove(browser.toLowerCase(), template)) {
+            outdated.add(template.directory);
+            logger.warn("{} profile template was built for version {} but {} is installed; rebuilding it for later sessions.",
+                    browser, template.version, browserVersion);
+        }
+    }
+
+    /**
+     * Records how long a browser launch took, split by whether it used a profile template. Time the launching thread
+     * spent building the template is excluded; it is reported separately.
+     *
+     * @param templated   whether the session ran on a cloned template
+     * @param launchNanos the launch duration in nanoseconds
+     */
+    public static void recordLaunch(boolean templated, long launchNanos) {
+        long building = pendingBuildNanos.get();
+        pendingBuildNanos.remove();
+        launchCounts.get(templated).incrementAndGet();
+        ProfileTemplates.launchNanos.get(templated).addAndGet(Math.max(0, launchNanos - building));
+    }
+
+    /**
+     * Logs the average browser launch time with and without profile templates, and the time spent building templates.
+     */
+    public static void logStatistics() {
+        if (buildCount.get() > 0) {
+            logger.info("Built {} profile template(s) in {} ms total (not included in launch times)",
+                    buildCount.get(), buildNanos.get() / 1_000_000);
+        }
+        launchCounts.forEach((templated, count) -> {
+            if (count.get() > 0) {
+                logger.info("Browser launch {} profile templates: {} ms on average over {} session(s)",
+                        templated ? "with" : "without", launchNanos.get(templated).get() / count.get() / 1_000_000, count.get());
+            }
+        });
+    }
+
+    private static Path root() {
+        String configured = config.getPropertyOrDefault("profileTemplateRoot", "");
+        if (!configured.isEmpty()) {
+            return Paths.get(configured);
+        }
+        Path shm = Paths.get("/dev/shm");
+        Path base = Files.isDirectory(shm) && Files.isWritable(shm) ? shm : Paths.get(System.getProperty("java.io.tmpdir"));
+        return base.resolve("selenium-bdd-profiles");
+    }
+
+    private static Template findOrBuildTemplate(String browser, Function<Path, String> initializer) {
+        Path templatesDir = root().resolve("templates");
+        if (Files.isDirectory(templatesDir)) {
+            try (Stream<Path> entries = Files.list(templatesDir)) {
+                Template newest = entries.filter(dir -> dir.getFileName().toString().startsWith(browser + "-"))
+                        .filter(dir -> !outdated.contains(dir) && Files.exists(dir.resolve(READY_MARKER)))
+                        .max(Comparator.comparing(ProfileTemplates::lastModified))
+                        .map(dir -> new Template(dir, readVersion(dir)))
+                        .orElse(null);
+                if (newest != null) {
+                    logger.info("Reusing {} {} profile template at {}", browser, newest.version, newest.directory);
+                    return newest;
+                }
+            } catch (IOException e) {
+                logger.warn("Could not list profile templates in {}: {}", templatesDir, e.getMessage());
+            }
+        }
+        return buildTemplate(browser, initializer);
+    }
+
+    private static Template buildTemplate(String browser, Function<Path, String> initializer) {
+        long start = System.nanoTime();
+        Path building = root().resolve("templates").resolve(browser + "-building-" + UUID.randomUUID());
+        Template template;
+        try {
+            Files.createDirectories(building);
+            String version = initializer.apply(building);
+            try (Stream<Path> entries = Files.walk(building)) {
+                entries.filter(path -> TRIMMED.contains(path.getFileName().toString()) || LOCKS.contains(path.getFileName().toString()))
+                        .sorted(Comparator.reverseOrder())
+                        .forEach(ProfileTemplates::delete);
+            }
+            Files.writeString(building.resolve(READY_MARKER), version);
+            Path target = building.resolveSibling(browser + "-" + version.replaceAll("[^A-Za-z0-9._-]", "_"));
+            delete(target);
+            Files.move(building, target, StandardCopyOption.ATOMIC_MOVE);
+            template = new Template(target, version);
+        } catch (IOException | RuntimeException e) {
+            delete(building);
+            throw new RuntimeException("Failed to build " + browser + " profile template: " + e.getMessage(), e);
+        }
+        long elapsed = System.nanoTime() - start;
+        buildCount.incrementAndGet();
+        buildNanos.addAndGet(elapsed);
+        pendingBuildNanos.set(pendingBuildNanos.get() + elapsed);
+        logger.info("Built {} {} profile template at {} in {} ms", browser, template.version, template.directory, elapsed / 1_000_000);
+        return template;
+    }
+
+    private static String readVersion(Path template) {
+        try {
+            return Files.readString(template.resolve(READY_MARKER)).trim();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static void copy(Path source, Path target) {
+        try {
+            Files.walkFileTree(source, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    String name = file.getFileName().toString();
+                    if (!LOCKS.contains(name) && !READY_MARKER.equals(name)) {
+                        Files.copy(file, target.resolve(source.relativize(file).toString()), StandardCopyOption.COPY_ATTRIBUTES,
+                                LinkOption.NOFOLLOW_LINKS);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            delete(target);
+            throw new RuntimeException("Failed to clone profile template " + source + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static void delete(Path path) {
+        if (!Files.exists(path, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        try (Stream<Path> entries = Files.walk(path)) {
+            entries.sorted(Comparator.reverseOrder()).forEach(entry -> {
+                try {
+                    Files.deleteIfExists(entry);
+                } catch (IOException e) {
+                    logger.debug("Could not delete {}: {}", entry, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Failed to delete profile directory {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * A ready profile template and the browser version it was built with.
+     */
+    private static final class Template {
+        private final Path directory;
+        private final String version;
+
+        Template(Path directory, String version) {
+            this.directory = directory;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package utilities.drivermanager;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Identity-based map key for a driver session, so per-session caches are bound to a driver instance
+ * regardless of how (or whether) the driver implements equals().
+ */
+public final class SessionKey {
+    private final WebDriver driver;
+
+    public SessionKey(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof SessionKey && ((SessionKey) other).driver == driver;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(driver);
+    }
+}
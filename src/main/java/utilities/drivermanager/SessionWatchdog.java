@@ -0,0 +1,316 @@
+package utilities.drivermanager;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import utilities.config.PropertyFileReader;
+import utilities.jfr.WatchdogEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Enforces per-command ({@code commandDeadlineMs}) and per-scenario ({@code scenarioDeadlineMs}) deadlines on the
+ * sessions created by {@link GetDriverManager}.
+ * <p>
+ * A background thread checks every session's in-flight command, as tracked by its {@link CommandInstrumentation},
+ * and the running time of its scenario. When a deadline passes, the session's browser and driver-service processes
+ * are killed, which makes the stuck command fail at once, and a scenario thread is also interrupted. The scenario then
+ * fails; the next {@link GetDriverManager#getDriver} on that thread outside a running scenario (the next scenario, or
+ * the next row of a data-driven worker) launches a replacement session instead of handing back the dead one. Kills
+ * and replacements are logged and recorded as JFR events. Disable with {@code watchdog=false}.
+ */
+public final class SessionWatchdog {
+    private static final Logger logger = LogManager.getLogger(SessionWatchdog.class);
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final long CHECK_INTERVAL_MS = 500;
+
+    private static final Map<Thread, WatchedSession> sessions = new ConcurrentHashMap<>();
+    private static final Map<Thread, Long> scenarioStarts = new ConcurrentHashMap<>();
+    private static final ThreadLocal<WatchedSession> killedSession = new ThreadLocal<>();
+    private static final AtomicLong kills = new AtomicLong();
+    private static final AtomicLong replacements = new AtomicLong();
+    private static volatile ScheduledExecutorService checker;
+
+    private SessionWatchdog() {
+    }
+
+    /**
+     * Returns whether sessions are watched.
+     *
+     * @return true unless {@code watchdog=false}
+     */
+    public static boolean isEnabled() {
+        return config.getBooleanPropertyOrDefault("watchdog", true);
+    }
+
+    /**
+     * Starts watching the current thread's new session.
+     *
+     * @param driver          the undecorated driver, quit from another thread if no process can be killed
+     * @param capabilities    the capabilities of the session, used to find its browser process
+     * @param instrumentation the command instrumentation of the session, or null if commands are not tracked
+     * @param browser         the browser name
+     * @param sessionId       the session or browser context id
+     * @param ownsProcesses   whether the browser and driver service belong to this session alone and may be killed
+     */
+    static void watch(WebDriver driver, Capabilities capabilities, CommandInstrumentation instrumentation, String browser, String sessionId,
+                      boolean ownsProcesses) {
+        if (!isEnabled()) {
+            return;
+        }
+        startChecker();
+        sessions.put(Thread.currentThread(),
+                new WatchedSession(Thread.currentThread(), driver, capabilities, instrumentation, browser, sessionId, ownsProcesses));
+    }
+
+    /**
+     * Stops watching the current thread's session.
+     */
+    static void unwatch() {
+        sessions.remove(Thread.currentThread());
+    }
+
+    /**
+     * Returns whether the watchdog killed the current thread's session.
+     *
+     * @return true if the session is dead and has to be replaced
+     */
+    static boolean isKilled() {
+        WatchedSession session = sessions.get(Thread.currentThread());
+        return session != null && session.killed;
+    }
+
+    /**
+     * Returns why the current thread's session was killed.
+     *
+     * @return the kill reason, or null if the session was not killed
+     */
+    static String getKillReason() {
+        WatchedSession session = sessions.get(Thread.currentThread());
+        return session != null && session.killed ? session.killReason : null;
+    }
+
+    /**
+     * Returns whether a scenario deadline is running on the current thread.
+     *
+     * @return true between {@link #startScenario()} and {@link #endScenario()}
+     */
+    static boolean inScenario() {
+        return scenarioStarts.containsKey(Thread.currentThread());
+    }
+
+    /**
+     * Clears the interrupt the watchdog left on the current thread, so cleanup and the replacement session are not
+     * cut short by it.
+     */
+    static void acknowledgeKill() {
+        WatchedSession session = sessions.get(Thread.currentThread());
+        if (session != null && session.killed) {
+            Thread.interrupted();
+            killedSession.set(session);
+        }
+    }
+
+    /**
+     * Records that the current thread launched a session in place of one the watchdog killed.
+     *
+     * @param sessionId the id of the new session
+     */
+    static void recordReplacement(String sessionId) {
+        WatchedSession killed = killedSession.get();
+        if (killed == null) {
+            return;
+        }
+        killedSession.remove();
+        replacements.incrementAndGet();
+        long sinceKill = (System.nanoTime() - killed.killedAtNanos) / 1_000_000;
+        logger.warn("Replaced killed {} session {} with {} ({} ms after the kill)", killed.browser, killed.sessionId, sessionId, sinceKill);
+        WatchdogEvent event = new WatchdogEvent();
+        if (event.shouldCommit()) {
+            event.action = "replace";
+            event.reason = "replaces " + killed.sessionId;
+            event.browser = killed.browser;
+            event.sessionId = sessionId;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts the scenario deadline for the current thread.
+     */
+    public static void startScenario() {
+        scenarioStarts.put(Thread.currentThread(), System.nanoTime());
+    }
+
+    /**
+     * Ends the scenario deadline for the current thread.
+     */
+    public static void endScenario() {
+        scenarioStarts.remove(Thread.currentThread());
+    }
+
+    /**
+     * Logs how many sessions were killed and replaced during the run.
+     */
+    public static void logStatistics() {
+        if (kills.get() > 0) {
+            logger.warn("Session watchdog: {} stuck session(s) killed, {} replaced", kills.get(), replacements.get());
+        }
+    }
+
+    private static synchronized void startChecker() {
+        if (checker == null) {
+            checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            checker.scheduleWithFixedDelay(SessionWatchdog::check, CHECK_INTERVAL_MS, CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void check() {
+        long commandDeadline = TimeUnit.MILLISECONDS.toNanos(config.getIntPropertyOrDefault("commandDeadlineMs", 60000));
+        long scenarioDeadline = TimeUnit.MILLISECONDS.toNanos(config.getIntPropertyOrDefault("scenarioDeadlineMs", 600000));
+        long now = System.nanoTime();
+        try {
+            sessions.forEach((thread, session) -> {
+                if (session.killed) {
+                    return;
+                }
+                CommandInstrumentation instrumentation = session.instrumentation;
+                String command = instrumentation == null ? null : instrumentation.getCommandInFlight();
+                if (command != null && commandDeadline > 0 && now - instrumentation.getCommandStartNanos() > commandDeadline) {
+                    kill(session, command, String.format("%s ran longer than %d ms", command, TimeUnit.NANOSECONDS.toMillis(commandDeadline)));
+                    return;
+                }
+                Long scenarioStart = scenarioStarts.get(thread);
+                if (scenarioStart != null && scenarioDeadline > 0 && now - scenarioStart > scenarioDeadline) {
+                    kill(session, command, String.format("scenario ran longer than %d ms", TimeUnit.NANOSECONDS.toMillis(scenarioDeadline)));
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.error("Session watchdog check failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void kill(WatchedSession session, String command, String reason) {
+        session.killReason = reason;
+        session.killedAtNanos = System.nanoTime();
+        session.killed = true;
+        kills.incrementAndGet();
+        int killed = 0;
+        if (session.ownsProcesses) {
+            for (ProcessHandle process : session.processes()) {
+                process.destroyForcibly();
+                killed++;
+            }
+        }
+        if (killed == 0) {
+            // In-JVM drivers (HtmlUnit) and sessions whose processes are not ours: closing the session aborts the command
+            Thread abort = new Thread(() -> {
+                try {
+                    session.driver.quit();
+                } catch (RuntimeException e) {
+                    logger.debug("Abort of session {} failed: {}", session.sessionId, e.getMessage());
+                }
+            }, "session-watchdog-abort");
+            abort.setDaemon(true);
+            abort.start();
+        }
+        if (scenarioStarts.containsKey(session.owner)) {
+            // Wakes a scenario thread blocked outside the driver (sleeps, waits); GetDriverManager.quitDriver clears it.
+            // Other threads, such as data-driven workers, are not interrupted: the kill already fails their command,
+            // and an interrupt left set would stop them from taking their next row
+            session.owner.interrupt();
+        }
+        logger.error("Watchdog killed {} session {} on thread '{}': {}; {} process(es) killed",
+                session.browser, session.sessionId, session.owner.getName(), reason, killed);
+        WatchdogEvent event = new WatchdogEvent();
+        if (event.shouldCommit()) {
+            event.action = "kill";
+            event.reason = reason;
+            event.browser = session.browser;
+            event.sessionId = session.sessionId;
+            event.command = command;
+            event.processesKilled = killed;
+            event.commit();
+        }
+    }
+
+    private static final class WatchedSession {
+        private final Thread owner;
+        private final WebDriver driver;
+        private final Capabilities capabilities;
+        private final CommandInstrumentation instrumentation;
+        private final String browser;
+        private final String sessionId;
+        private final boolean ownsProcesses;
+        private volatile boolean killed;
+        private volatile String killReason;
+        private volatile long killedAtNanos;
+
+        WatchedSession(Thread owner, WebDriver driver, Capabilities capabilities, CommandInstrumentation instrumentation, String browser,
+                       String sessionId, boolean ownsProcesses) {
+            this.owner = owner;
+            this.driver = driver;
+            this.capabilities = capabilities;
+            this.instrumentation = instrumentation;
+            this.browser = browser;
+            this.sessionId = sessionId;
+            this.ownsProcesses = ownsProcesses;
+        }
+
+        /**
+         * Finds the session's browser process through its capabilities (the Firefox process id, or the Chrome/Edge
+         * profile directory on the command line), and returns it with its children and its driver-service parent.
+         */
+        List<ProcessHandle> processes() {
+            List<ProcessHandle> processes = new ArrayList<>();
+            Optional<ProcessHandle> browserProcess = Optional.empty();
+            Object firefoxPid = capabilities == null ? null : capabilities.getCapability("moz:processID");
+            if (firefoxPid instanceof Number) {
+                browserProcess = ProcessHandle.of(((Number) firefoxPid).longValue());
+            } else {
+                String profile = userDataDir();
+                if (profile != null) {
+                    browserProcess = ProcessHandle.current().descendants()
+                            .filter(process -> process.info().commandLine().map(line -> line.contains("--user-data-dir=" + profile)).orElse(false))
+                            .filter(process -> process.parent().flatMap(parent -> parent.info().commandLine())
+                                    .map(line -> !line.contains("--user-data-dir=" + profile)).orElse(true))
+                            .findFirst();
+                }
+            }
+            browserProcess.ifPresent(process -> {
+                process.descendants().forEach(processes::add);
+                processes.add(process);
+                process.parent()
+                        .filter(parent -> parent.info().command().map(command -> command.contains("driver")).orElse(false))
+                        .ifPresent(processes::add);
+            });
+            return processes;
+        }
+
+        private String userDataDir() {
+            if (capabilities == null) {
+                return null;
+            }
+            for (String vendor : List.of("chrome", "msedge")) {
+                Object details = capabilities.getCapability(vendor);
+                if (details instanceof Map && ((Map<?, ?>) details).get("userDataDir") != null) {
+                    return String.valueOf(((Map<?, ?>) details).get("userDataDir"));
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("selenium.Assertion")
+@Label("Assertion")
+@Category({"Selenium BDD", "Assertions"})
+@Description("Assertion evaluated by AssertionHelper")
+public class AssertionEvent extends Event {
+    @Label("Assertion")
+    public String assertion;
+
+    @Label("Passed")
+    public boolean passed;
+
+    @Label("Message")
+    public String message;
+}
@@ -0,0 +1,19 @@
+package utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("selenium.ConfigLoad")
+@Label("Config Load")
+@Category({"Selenium BDD", "Config"})
+@Description("Properties file load in PropertyFileReader")
+public class ConfigLoadEvent extends Event {
+    @Label("File Path")
+    public String filePath;
+
+    @Label("Property Count")
+    public int propertyCount;
+}
@@ -0,0 +1,22 @@
+package utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("selenium.DriverLaunch")
+@Label("Driver Launch")
+@Category({"Selenium BDD", "Driver"})
+@Description("WebDriver session creation in GetDriverManager, including driver resolution and browser launch")
+public class DriverLaunchEvent extends Event {
+    @Label("Browser")
+    public String browser;
+
+    @Label("Session Id")
+    public String sessionId;
+
+    @Label("Network Profile")
+    public String networkProfile;
+}
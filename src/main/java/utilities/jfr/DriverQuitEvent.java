@@ -0,0 +1,19 @@
+package utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("selenium.DriverQuit")
+@Label("Driver Quit")
+@Category({"Selenium BDD", "Driver"})
+@Description("WebDriver session shutdown in GetDriverManager")
+public class DriverQuitEvent extends Event {
+    @Label("Session Id")
+    public String sessionId;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,22 @@
+package utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("selenium.Scenario")
+@Label("Scenario")
+@Category({"Selenium BDD", "Scenarios"})
+@Description("Cucumber scenario from the Before hook to the end of the After hook")
+public class ScenarioEvent extends Event {
+    @Label("Scenario")
+    public String scenario;
+
+    @Label("Status")
+    public String status;
+
+    @Label("Network Profile")
+    public String networkProfile;
+}
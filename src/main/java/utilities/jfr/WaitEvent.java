@@ -0,0 +1,28 @@
+package utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("selenium.Wait")
+@Label("Wait")
+@Category({"Selenium BDD", "Waits"})
+@Description("Explicit wait in WaitHelper or GeneralHelper, from start until the condition matched or timed out")
+public class WaitEvent extends Event {
+    @Label("Helper")
+    public String helper;
+
+    @Label("Condition")
+    public String condition;
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Poll Count")
+    public int pollCount;
+
+    @Label("Matched")
+    public boolean matched;
+}
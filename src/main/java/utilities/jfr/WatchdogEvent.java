@@ -0,0 +1,31 @@
+package utilities.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("selenium.Watchdog")
+@Label("Session Watchdog")
+@Category({"Selenium BDD", "Driver"})
+@Description("A stuck session killed by the session watchdog, or the session that replaced it")
+public class WatchdogEvent extends Event {
+    @Label("Action")
+    public String action;
+
+    @Label("Reason")
+    public String reason;
+
+    @Label("Browser")
+    public String browser;
+
+    @Label("Session Id")
+    public String sessionId;
+
+    @Label("Command")
+    public String command;
+
+    @Label("Processes Killed")
+    public int processesKilled;
+}
@@ -0,0 +1,20 @@
+package utilities.pagefactory;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a page object whose {@code @FindBy} fields are bound at build time instead of through
+ * {@code PageFactory.initElements}.
+ * <p>
+ * For every annotated page {@code Foo}, {@link PageObjectProcessor} generates {@code FooElements} in the same
+ * package. It holds one {@code By} constant per locator and a {@code bind(Foo, WebDriver)} method that assigns
+ * each field a {@link LazyElement}. Fields marked with {@code @CacheLookup} keep their element after the first
+ * lookup; every other field is located again on each call, just like PageFactory.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GeneratedPage {
+}
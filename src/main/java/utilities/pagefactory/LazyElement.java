@@ -0,0 +1,231 @@
+package utilities.pagefactory;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+
+import java.util.List;
+
+/**
+ * A plain (non-proxy) WebElement that locates its target on demand.
+ * <p>
+ * Instances are created by the classes generated for {@link GeneratedPage} page objects. When {@code cached} is
+ * true the located element is kept and only looked up again if it goes stale; otherwise every call issues a
+ * fresh {@code findElement}, matching the behaviour of PageFactory fields without {@code @CacheLookup}.
+ */
+public final class LazyElement implements WebElement, WrapsElement, Locatable {
+    private final SearchContext context;
+    private final By by;
+    private final boolean cached;
+    private WebElement element;
+
+    public LazyElement(SearchContext context, By by, boolean cached) {
+        this.context = context;
+        this.by = by;
+        this.cached = cached;
+    }
+
+    /**
+     * Returns the locator this element is resolved with.
+     *
+     * @return the By locator
+     */
+    public By getLocator() {
+        return by;
+    }
+
+    /**
+     * Returns the context the locator is resolved in: the driver, or the element the locator is scoped to.
+     *
+     * @return the search context
+     */
+    public SearchContext getSearchContext() {
+        return context;
+    }
+
+    /**
+     * Locates the element, reusing the cached reference when caching is enabled.
+     *
+     * @return the located WebElement
+     */
+    private WebElement locate() {
+        if (!cached) {
+            return context.findElement(by);
+        }
+        if (element == null) {
+            element = context.findElement(by);
+        }
+        return element;
+    }
+
+    /**
+     * Drops the cached reference so the next call locates the element again.
+     */
+    public void invalidate() {
+        element = null;
+    }
+
+    @Override
+    public WebElement getWrappedElement() {
+        return locate();
+    }
+
+    @Override
+    public Coordinates getCoordinates() {
+        WebElement located = locate();
+        if (located instanceof Locatable) {
+            return ((Locatable) located).getCoordinates();
+        }
+        throw new WebDriverException("Located element does not support coordinates: " + by);
+    }
+
+    @Override
+    public void click() {
+        try {
+            locate().click();
+        } catch (StaleElementReferenceException e) {
+            retryAfterStale(e).click();
+        }
+    }
+
+    @Override
+    public void submit() {
+        locate().submit();
+    }
+
+    @Override
+    public void sendKeys(CharSequence... keysToSend) {
+        try {
+            locate().sendKeys(keysToSend);
+        } catch (StaleElementReferenceException e) {
+            retryAfterStale(e).sendKeys(keysToSend);
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            locate().clear();
+        } catch (StaleElementReferenceException e) {
+            retryAfterStale(e).clear();
+        }
+    }
+
+    @Override
+    public String getTagName() {
+        return locate().getTagName();
+    }
+
+    @Override
+    public String getDomProperty(String name) {
+        return locate().getDomProperty(name);
+    }
+
+    @Override
+    public String getDomAttribute(String name) {
+        return locate().getDomAttribute(name);
+    }
+
+    @Override
+    public String getAttribute(String name) {
+        return locate().getAttribute(name);
+    }
+
+    @Override
+    public String getAriaRole() {
+        return locate().getAriaRole();
+    }
+
+    @Override
+    public String getAccessibleName() {
+        return locate().getAccessibleName();
+    }
+
+    @Override
+    public boolean isSelected() {
+        return locate().isSelected();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return locate().isEnabled();
+    }
+
+    @Override
+    public String getText() {
+        return locate().getText();
+    }
+
+    @Override
+    public List<WebElement> findElements(By by) {
+        return locate().findElements(by);
+    }
+
+    @Override
+    public WebElement findElement(By by) {
+        return locate().findElement(by);
+    }
+
+    @Override
+    public SearchContext getShadowRoot() {
+        return locate().getShadowRoot();
+    }
+
+    @Override
+    public boolean isDisplayed() {
+        return locate().isDisplayed();
+    }
+
+    @Override
+    public Point getLocation() {
+        return locate().getLocation();
+    }
+
+    @Override
+    public Dimension getSize() {
+        return locate().getSize();
+    }
+
+    @Override
+    public Rectangle getRect() {
+        return locate().getRect();
+    }
+
+    @Override
+    public String getCssValue(String propertyName) {
+        return locate().getCssValue(propertyName);
+    }
+
+    @Override
+    public <X> X getScreenshotAs(OutputType<X> target) {
+        return locate().getScreenshotAs(target);
+    }
+
+    /**
+     * Re-locates a cached element that went stale; uncached elements are already fresh, so the error is rethrown.
+     *
+     * @param e the stale element exception
+     * @return the freshly located WebElement
+     */
+    private WebElement retryAfterStale(StaleElementReferenceException e) {
+        if (!cached) {
+            throw e;
+        }
+        invalidate();
+        return locate();
+    }
+
+    @Override
+    public String toString() {
+        return "LazyElement{" + by + (cached ? ", cached" : "") + "}";
+    }
+}
@@ -0,0 +1,356 @@
+package utilities.pagefactory;
+
+import com.sun.source.tree.BlockTree;
+import com.sun.source.tree.CatchTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.EnhancedForLoopTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.ForLoopTree;
+import com.sun.source.tree.IdentifierTree;
+import com.sun.source.tree.LambdaExpressionTree;
+import com.sun.source.tree.MemberSelectTree;
+import com.sun.source.tree.MethodInvocationTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.StatementTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.TryTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+import org.openqa.selenium.support.CacheLookup;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.How;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates reflection-free element bindings for page objects annotated with {@link GeneratedPage}.
+ * <p>
+ * Each {@code @FindBy} field becomes a {@code By} constant and a {@link LazyElement} assignment in the generated
+ * {@code <Page>Elements} class. Locator fields that are never accessed inside the page class are reported as
+ * compiler warnings, and unsupported declarations (private/final fields, non-WebElement types, {@code @FindBys},
+ * {@code @FindAll}) are reported as errors.
+ */
+@SupportedAnnotationTypes("utilities.pagefactory.GeneratedPage")
+public class PageObjectProcessor extends AbstractProcessor {
+    private static final String WEB_ELEMENT = "org.openqa.selenium.WebElement";
+    private Messager messager;
+    private Trees trees;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.messager = processingEnv.getMessager();
+        try {
+            this.trees = Trees.instance(processingEnv);
+        } catch (IllegalArgumentException e) {
+            // Not running inside javac; unused-locator detection is skipped.
+            this.trees = null;
+        }
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GeneratedPage.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@GeneratedPage can only be applied to classes.", element);
+                continue;
+            }
+            TypeElement page = (TypeElement) element;
+            List<Locator> locators = collectLocators(page);
+            reportUnusedLocators(page, locators);
+            writeElementsClass(page, locators);
+        }
+        return true;
+    }
+
+    /**
+     * Collects every {@code @FindBy} field declared on the page and validates that it can be bound.
+     *
+     * @param page the page object type
+     * @return the locators in declaration order
+     */
+    private List<Locator> collectLocators(TypeElement page) {
+        List<Locator> locators = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(page.getEnclosedElements())) {
+            if (field.getAnnotation(FindBys.class) != null || field.getAnnotation(FindAll.class) != null) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "@FindBys and @FindAll are not supported by @GeneratedPage.", field);
+                continue;
+            }
+            FindBy findBy = field.getAnnotation(FindBy.class);
+            if (findBy == null) {
+                continue;
+            }
+            if (!WEB_ELEMENT.equals(field.asType().toString())) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Only WebElement fields can be bound by @GeneratedPage.", field);
+                continue;
+            }
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.STATIC)) {
+                messager.printMessage(Diagnostic.Kind.ERROR, "Locator fields must be non-private, non-final instance fields.", field);
+                continue;
+            }
+            String byExpression = toByExpression(findBy, field);
+            if (byExpression != null) {
+                boolean cached = field.getAnnotation(CacheLookup.class) != null;
+                locators.add(new Locator(field, field.getSimpleName().toString(), byExpression, cached));
+            }
+        }
+        return locators;
+    }
+
+    /**
+     * Translates a {@code @FindBy} annotation into the equivalent {@code By} factory call.
+     *
+     * @param findBy the annotation to translate
+     * @param field  the annotated field, used for error reporting
+     * @return the Java expression, or null if the annotation is invalid
+     */
+    private String toByExpression(FindBy findBy, VariableElement field) {
+        List<String> expressions = new ArrayList<>();
+        addIfSet(expressions, "By.id", findBy.id());
+        addIfSet(expressions, "By.name", findBy.name());
+        addIfSet(expressions, "By.className", findBy.className());
+        addIfSet(expressions, "By.cssSelector", findBy.css());
+        addIfSet(expressions, "By.tagName", findBy.tagName());
+        addIfSet(expressions, "By.linkText", findBy.linkText());
+        addIfSet(expressions, "By.partialLinkText", findBy.partialLinkText());
+        addIfSet(expressions, "By.xpath", findBy.xpath());
+        if (findBy.how() != How.UNSET) {
+            addIfSet(expressions, byFactoryFor(findBy.how()), findBy.using());
+        }
+        if (expressions.size() != 1) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "@FindBy must declare exactly one locator strategy.", field);
+            return null;
+        }
+        return expressions.get(0);
+    }
+
+    private void addIfSet(List<String> expressions, String factory, String value) {
+        if (!value.isEmpty()) {
+            expressions.add(factory + "(" + processingEnv.getElementUtils().getConstantExpression(value) + ")");
+        }
+    }
+
+    private static String byFactoryFor(How how) {
+        switch (how) {
+            case CLASS_NAME:
+                return "By.className";
+            case CSS:
+                return "By.cssSelector";
+            case ID:
+                return "By.id";
+            case LINK_TEXT:
+                return "By.linkText";
+            case NAME:
+                return "By.name";
+            case PARTIAL_LINK_TEXT:
+                return "By.partialLinkText";
+            case TAG_NAME:
+                return "By.tagName";
+            case XPATH:
+                return "By.xpath";
+            case ID_OR_NAME:
+                return "new org.openqa.selenium.support.pagefactory.ByIdOrName";
+            default:
+                throw new IllegalArgumentException("Unsupported locator strategy: " + how);
+        }
+    }
+
+    /**
+     * Warns about locator fields that are never read or written from the page object's own source.
+     * <p>
+     * Only accesses that resolve to the field count: a simple name that no parameter, local variable or nested class
+     * member of the same name shadows, or a {@code this.name} / {@code Page.this.name} selection. The check is
+     * syntactic, so accesses through another instance of the page ({@code other.name}) are not recognized.
+     *
+     * @param page     the page object type
+     * @param locators the locators declared on the page
+     */
+    private void reportUnusedLocators(TypeElement page, List<Locator> locators) {
+        if (trees == null || locators.isEmpty()) {
+            return;
+        }
+        TreePath pagePath = trees.getPath(page);
+        if (pagePath == null) {
+            return;
+        }
+        Set<String> names = new HashSet<>();
+        locators.forEach(locator -> names.add(locator.fieldName));
+        Set<String> referenced = new HashSet<>();
+        new TreePathScanner<Void, Void>() {
+            @Override
+            public Void visitIdentifier(IdentifierTree node, Void unused) {
+                String name = node.getName().toString();
+                if (names.contains(name) && !isMethodName(getCurrentPath()) && !isShadowed(name, getCurrentPath(), pagePath.getLeaf())) {
+                    referenced.add(name);
+                }
+                return super.visitIdentifier(node, unused);
+            }
+
+            @Override
+            public Void visitMemberSelect(MemberSelectTree node, Void unused) {
+                String name = node.getIdentifier().toString();
+                if (names.contains(name) && isThis(node.getExpression())) {
+                    referenced.add(name);
+                }
+                return super.visitMemberSelect(node, unused);
+            }
+        }.scan(pagePath, null);
+
+        for (Locator locator : locators) {
+            if (!referenced.contains(locator.fieldName)) {
+                messager.printMessage(Diagnostic.Kind.WARNING,
+                        "Locator '" + locator.fieldName + "' in " + page.getSimpleName() + " is declared but never used.", locator.field);
+            }
+        }
+    }
+
+    private static boolean isThis(ExpressionTree expression) {
+        if (expression instanceof IdentifierTree) {
+            return ((IdentifierTree) expression).getName().contentEquals("this");
+        }
+        return expression instanceof MemberSelectTree && ((MemberSelectTree) expression).getIdentifier().contentEquals("this");
+    }
+
+    private static boolean isMethodName(TreePath path) {
+        Tree parent = path.getParentPath().getLeaf();
+        return parent instanceof MethodInvocationTree && ((MethodInvocationTree) parent).getMethodSelect() == path.getLeaf();
+    }
+
+    /**
+     * Returns whether a declaration between the identifier and the page class hides the page's field of that name.
+     */
+    private static boolean isShadowed(String name, TreePath path, Tree pageClass) {
+        Tree child = path.getLeaf();
+        for (TreePath current = path.getParentPath(); current != null; current = current.getParentPath()) {
+            Tree scope = current.getLeaf();
+            if (scope == pageClass) {
+                return false;
+            }
+            List<Tree> declarations = new ArrayList<>();
+            if (scope instanceof MethodTree) {
+                declarations.addAll(((MethodTree) scope).getParameters());
+            } else if (scope instanceof LambdaExpressionTree) {
+                declarations.addAll(((LambdaExpressionTree) scope).getParameters());
+            } else if (scope instanceof BlockTree) {
+                // Only locals declared before the statement holding the identifier are in scope
+                for (StatementTree statement : ((BlockTree) scope).getStatements()) {
+                    if (statement == child) {
+                        break;
+                    }
+                    declarations.add(statement);
+                }
+            } else if (scope instanceof ForLoopTree) {
+                declarations.addAll(((ForLoopTree) scope).getInitializer());
+            } else if (scope instanceof EnhancedForLoopTree) {
+                declarations.add(((EnhancedForLoopTree) scope).getVariable());
+            } else if (scope instanceof CatchTree) {
+                declarations.add(((CatchTree) scope).getParameter());
+            } else if (scope instanceof TryTree) {
+                declarations.addAll(((TryTree) scope).getResources());
+            } else if (scope instanceof ClassTree) {
+                // A nested or anonymous class declaring its own member of that name
+                declarations.addAll(((ClassTree) scope).getMembers());
+            }
+            for (Tree declaration : declarations) {
+                if (declaration instanceof VariableTree && ((VariableTree) declaration).getName().contentEquals(name)) {
+                    return true;
+                }
+            }
+            child = scope;
+        }
+        return false;
+    }
+
+    /**
+     * Writes the {@code <Page>Elements} source file for the given page.
+     *
+     * @param page     the page object type
+     * @param locators the locators to bind
+     */
+    private void writeElementsClass(TypeElement page, List<Locator> locators) {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(page);
+        String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        String pageName = page.getSimpleName().toString();
+        String className = pageName + "Elements";
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import org.openqa.selenium.By;\n")
+                .append("import org.openqa.selenium.SearchContext;\n")
+                .append("import utilities.pagefactory.LazyElement;\n\n")
+                .append("@javax.annotation.processing.Generated(\"").append(PageObjectProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(className).append(" {\n");
+        for (Locator locator : locators) {
+            source.append("    public static final By ").append(locator.constantName())
+                    .append(" = ").append(locator.byExpression).append(";\n");
+        }
+        source.append("\n    private ").append(className).append("() {\n    }\n\n")
+                .append("    /**\n     * Binds every locator field of the page to a lazily located element.\n     */\n")
+                .append("    public static void bind(").append(pageName).append(" page, SearchContext context) {\n");
+        for (Locator locator : locators) {
+            source.append("        page.").append(locator.fieldName).append(" = new LazyElement(context, ")
+                    .append(locator.constantName()).append(", ").append(locator.cached).append(");\n");
+        }
+        source.append("    }\n}\n");
+
+        String qualifiedName = packageName.isEmpty() ? className : packageName + "." + className;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, page);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write " + qualifiedName + ": " + e.getMessage(), page);
+        }
+    }
+
+    private static final class Locator {
+        private final VariableElement field;
+        private final String fieldName;
+        private final String byExpression;
+        private final boolean cached;
+
+        private Locator(VariableElement field, String fieldName, String byExpression, boolean cached) {
+            this.field = field;
+            this.fieldName = fieldName;
+            this.byExpression = byExpression;
+            this.cached = cached;
+        }
+
+        private String constantName() {
+            return fieldName.replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase();
+        }
+    }
+}
@@ -1,20 +1,135 @@
 package utilities.pageobjectmanager;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
 import pageobjects.login.LoginPO;
+import utilities.drivermanager.GetDriverManager;
+import utilities.drivermanager.SessionKey;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class PageObjectManager {
+    private static final Logger logger = LogManager.getLogger(PageObjectManager.class);
+    private static final MethodType PAGE_CONSTRUCTOR = MethodType.methodType(void.class, WebDriver.class);
+
+    // One constructor handle per page object type, resolved on first use
+    private static final ClassValue<MethodHandle> constructors = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            try {
+                return MethodHandles.publicLookup()
+                        .findConstructor(type, PAGE_CONSTRUCTOR)
+                        .asType(MethodType.methodType(Object.class, WebDriver.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new IllegalArgumentException("Page object must declare a public constructor taking a WebDriver: " + type.getName(), e);
+            }
+        }
+    };
+
+    // Page objects cached per driver session, shared by every glue instance using that session
+    private static final Map<SessionKey, Map<Class<?>, Object>> sessionPages = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, LongAdder> constructionCounts = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, LongAdder> constructionNanos = new ConcurrentHashMap<>();
+
+    static {
+        GetDriverManager.onSessionEnd(PageObjectManager::invalidate);
+    }
+
     private final WebDriver driver;
-    private LoginPO loginPO;
 
     public PageObjectManager(WebDriver driver) {
         this.driver = driver;
     }
 
+    /**
+     * Returns the page object of the given type for this manager's driver session, building it on first use.
+     * <p>
+     * The page is constructed outside the cache's lock, so a page constructor may itself request other pages; if two
+     * threads build the same page at once, the first one cached wins. Pages for a session that has already been quit
+     * are built but not cached, so the cache never outlives its session.
+     *
+     * @param type the page object class
+     * @param <T>  the page object type
+     * @return the cached page object
+     */
+    public <T> T get(Class<T> type) {
+        SessionKey key = new SessionKey(driver);
+        Map<Class<?>, Object> pages = sessionPages.get(key);
+        Object page = pages == null ? null : pages.get(type);
+        if (page != null) {
+            return type.cast(page);
+        }
+        page = construct(type);
+        if (pages == null) {
+            if (!GetDriverManager.isSessionOpen(driver)) {
+                logger.debug("Session of driver instance hash {} is not open; page object {} is not cached.",
+                        System.identityHashCode(driver), type.getSimpleName());
+                return type.cast(page);
+            }
+            pages = sessionPages.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        }
+        Object cached = pages.putIfAbsent(type, page);
+        if (!GetDriverManager.isSessionOpen(driver)) {
+            // The session ended while the page was being built; undo the map created for it
+            sessionPages.remove(key, pages);
+        }
+        return type.cast(cached != null ? cached : page);
+    }
+
     public LoginPO getLoginPage() {
-        if (loginPO == null) {
-            loginPO = new LoginPO(driver);
+        return get(LoginPO.class);
+    }
+
+    /**
+     * Builds a page object through its precomputed constructor handle and records the construction cost.
+     *
+     * @param type the page object class
+     * @return the new page object
+     */
+    private Object construct(Class<?> type) {
+        long start = System.nanoTime();
+        try {
+            Object page = constructors.get(type).invokeExact(driver);
+            long elapsed = System.nanoTime() - start;
+            constructionCounts.computeIfAbsent(type, key -> new LongAdder()).increment();
+            constructionNanos.computeIfAbsent(type, key -> new LongAdder()).add(elapsed);
+            logger.debug("Constructed page object {} in {} ms for driver instance hash: {}",
+                    type.getSimpleName(), elapsed / 1_000_000.0, System.identityHashCode(driver));
+            return page;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException("Failed to construct page object: " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Drops every cached page object for the given driver session. Call it whenever the session is reset or recycled.
+     *
+     * @param driver the driver whose page objects should be discarded
+     */
+    public static void invalidate(WebDriver driver) {
+        Map<Class<?>, Object> removed = sessionPages.remove(new SessionKey(driver));
+        if (removed != null) {
+            logger.debug("Invalidated {} cached page object(s) for driver instance hash: {}", removed.size(), System.identityHashCode(driver));
+        }
+    }
+
+    /**
+     * Logs how many page objects of each type were constructed and the total time spent doing so.
+     */
+    public static void logStatistics() {
+        if (constructionCounts.isEmpty()) {
+            logger.info("No page objects were constructed.");
+            return;
         }
-        return loginPO;
+        constructionCounts.forEach((type, count) -> logger.info("Page object {}: {} construction(s), {} ms total",
+                type.getSimpleName(), count.sum(), constructionNanos.get(type).sum() / 1_000_000.0));
     }
 }
@@ -0,0 +1,66 @@
+package utilities.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A timed, nested unit of work recorded by {@link Tracer}. Close it (ideally with try-with-resources) to end it.
+ */
+public class Span implements AutoCloseable {
+    static final Span NOOP = new Span();
+
+    final String traceId;
+    final String spanId;
+    final String parentSpanId;
+    final String name;
+    final String category;
+    final long threadId;
+    final String threadName;
+    final String sessionId;
+    final String networkProfile;
+    final long startNanos;
+    final Map<String, String> attributes;
+    long endNanos;
+    // Set by the first close, or when the parent closes first; a span is recorded once
+    boolean closed;
+
+    private Span() {
+        this(null, null, null, null, null, null, null);
+    }
+
+    Span(String traceId, String spanId, String parentSpanId, String name, String category, String sessionId, String networkProfile) {
+        Thread thread = Thread.currentThread();
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.category = category;
+        this.threadId = thread.getId();
+        this.threadName = thread.getName();
+        this.sessionId = sessionId;
+        this.networkProfile = networkProfile;
+        this.startNanos = System.nanoTime();
+        this.attributes = name == null ? Map.of() : new LinkedHashMap<>();
+    }
+
+    /**
+     * Adds an attribute to the span; ignored for the no-op span used when tracing is disabled.
+     *
+     * @param key   the attribute name
+     * @param value the attribute value
+     * @return this span
+     */
+    public Span attribute(String key, Object value) {
+        if (this != NOOP) {
+            attributes.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    @Override
+    public void close() {
+        if (this != NOOP && !closed) {
+            Tracer.end(this);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package utilities.tracing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import utilities.config.PropertyFileReader;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Breaks down the time from JVM start to the first step of each scenario thread into phases: glue discovery,
+ * configuration loads, driver resolution, browser launch, window maximize, timeouts and the first navigation.
+ * <p>
+ * Phases are only recorded until a thread reaches its first step. {@link #report()} logs the breakdown per thread,
+ * writes it to {@code target/startup-profile.json}, and compares the per-phase averages against the baseline in
+ * {@code startupBaseline}. A phase regresses when it is slower than the baseline by more than
+ * {@code startupRegressionPercent} and at least {@code startupRegressionMinMs}; regressions are logged, or fail the run
+ * with {@code startupRegressionMode=fail}. Run with {@code -DupdateStartupBaseline=true} to store a new baseline.
+ */
+public final class StartupProfiler {
+    private static final Logger logger = LogManager.getLogger(StartupProfiler.class);
+    private static final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private static final Map<Long, ThreadProfile> profiles = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ThreadProfile> currentProfile = ThreadLocal.withInitial(() -> {
+        ThreadProfile profile = new ThreadProfile(Thread.currentThread().getName());
+        profiles.put(Thread.currentThread().getId(), profile);
+        return profile;
+    });
+    private static volatile long glueLoadedMillis;
+
+    private StartupProfiler() {
+    }
+
+    /**
+     * Starts timing a startup phase on the current thread; a no-op once the thread has reached its first step.
+     *
+     * @param name the phase name, e.g. "browser-launch"
+     * @return the phase to close when it ends
+     */
+    public static Phase phase(String name) {
+        ThreadProfile profile = currentProfile.get();
+        return profile.firstStepMillis > 0 ? Phase.NOOP : new Phase(profile, name);
+    }
+
+    /**
+     * Marks the moment Cucumber loaded the glue code; the first call wins.
+     */
+    public static void glueLoaded() {
+        if (glueLoadedMillis == 0) {
+            glueLoadedMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Marks the first step of the current thread, closing its startup breakdown.
+     */
+    public static void firstStep() {
+        ThreadProfile profile = currentProfile.get();
+        if (profile.firstStepMillis == 0) {
+            profile.firstStepMillis = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Logs the startup breakdown per thread, writes it as JSON and checks it against the stored baseline.
+     *
+     * @throws AssertionError if a phase regressed and {@code startupRegressionMode=fail}
+     */
+    public static void report() {
+        List<ThreadProfile> completed = new ArrayList<>();
+        profiles.values().forEach(profile -> {
+            if (profile.firstStepMillis > 0) {
+                completed.add(profile);
+            }
+        });
+        if (completed.isEmpty()) {
+            return;
+        }
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        Map<String, Double> averages = new LinkedHashMap<>();
+        if (glueLoadedMillis > 0) {
+            averages.put("jvm-to-glue", (double) (glueLoadedMillis - jvmStartMillis));
+        }
+        List<Map<String, Object>> threads = new ArrayList<>();
+        for (ThreadProfile profile : completed) {
+            StringBuilder breakdown = new StringBuilder();
+            profile.phaseNanos.forEach((name, nanos) -> {
+                double millis = nanos / 1_000_000.0;
+                breakdown.append(String.format("%n  %-20s %8.1f ms (%d x)", name, millis, profile.phaseCounts.get(name)));
+                averages.merge(name, millis / completed.size(), Double::sum);
+            });
+            long timeToFirstStep = profile.firstStepMillis - jvmStartMillis;
+            averages.merge("time-to-first-step", (double) timeToFirstStep / completed.size(), Double::sum);
+            logger.info("Startup breakdown for thread '{}': {} ms from JVM start to first step{}", profile.threadName, timeToFirstStep, breakdown);
+
+            Map<String, Object> thread = new LinkedHashMap<>();
+            thread.put("thread", profile.threadName);
+            thread.put("timeToFirstStepMs", timeToFirstStep);
+            Map<String, Double> phases = new LinkedHashMap<>();
+            profile.phaseNanos.forEach((name, nanos) -> phases.put(name, nanos / 1_000_000.0));
+            thread.put("phasesMs", phases);
+            threads.add(thread);
+        }
+        run.put("jvmToGlueMs", glueLoadedMillis > 0 ? glueLoadedMillis - jvmStartMillis : null);
+        run.put("averagesMs", averages);
+        run.put("threads", threads);
+        write(Paths.get("target", "startup-profile.json"), run);
+        checkBaseline(averages);
+    }
+
+    private static void checkBaseline(Map<String, Double> averages) {
+        PropertyFileReader config = PropertyFileReader.getInstance();
+        Path baseline = Paths.get(config.getPropertyOrDefault("startupBaseline", "src/test/resources/startup-baseline.json"));
+        if (config.getBooleanPropertyOrDefault("updateStartupBaseline", false)) {
+            write(baseline, averages);
+            logger.info("Startup baseline updated: {}", baseline.toAbsolutePath());
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            logger.info("No startup baseline at {}; run with -DupdateStartupBaseline=true to create one.", baseline);
+            return;
+        }
+
+        Map<String, Double> expected;
+        try {
+            Map<String, Object> raw = new Json().toType(Files.readString(baseline), Json.MAP_TYPE);
+            expected = new LinkedHashMap<>();
+            raw.forEach((name, value) -> expected.put(name, ((Number) value).doubleValue()));
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Could not read startup baseline {}: {}", baseline, e.getMessage());
+            return;
+        }
+
+        double percent = config.getIntPropertyOrDefault("startupRegressionPercent", 25);
+        double minMillis = config.getIntPropertyOrDefault("startupRegressionMinMs", 100);
+        StringBuilder regressions = new StringBuilder();
+        averages.forEach((name, actual) -> {
+            Double before = expected.get(name);
+            if (before != null && actual - before > minMillis && actual > before * (1 + percent / 100)) {
+                regressions.append(String.format("%n  %s: %.1f ms vs baseline %.1f ms (+%.0f%%)", name, actual, before, (actual / before - 1) * 100));
+            }
+        });
+        if (regressions.length() == 0) {
+            logger.info("Startup within {}% of baseline {}", (int) percent, baseline);
+            return;
+        }
+        String message = "Startup regressed against baseline " + baseline + ":" + regressions;
+        if ("fail".equalsIgnoreCase(config.getPropertyOrDefault("startupRegressionMode", "warn"))) {
+            logger.error(message);
+            throw new AssertionError(message);
+        }
+        logger.warn(message);
+    }
+
+    private static void write(Path file, Object value) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, new Json().toJson(value).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.error("Failed to write startup profile to {}: {}", file, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * A running startup phase. Close it (ideally with try-with-resources) to record its duration.
+     */
+    public static final class Phase implements AutoCloseable {
+        private static final Phase NOOP = new Phase(null, null);
+
+        private final ThreadProfile profile;
+        private final String name;
+        private final long startNanos = System.nanoTime();
+
+        private Phase(ThreadProfile profile, String name) {
+            this.profile = profile;
+            this.name = name;
+        }
+
+        @Override
+        public void close() {
+            if (this != NOOP) {
+                profile.phaseNanos.merge(name, System.nanoTime() - startNanos, Long::sum);
+                profile.phaseCounts.merge(name, 1, Integer::sum);
+            }
+        }
+    }
+
+    private static final class ThreadProfile {
+        private final String threadName;
+        // Only written by the owning thread; read by report() once all scenarios have finished
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        private final Map<String, Integer> phaseCounts = new LinkedHashMap<>();
+        private volatile long firstStepMillis;
+
+        ThreadProfile(String threadName) {
+            this.threadName = threadName;
+        }
+    }
+}
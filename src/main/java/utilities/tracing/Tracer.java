@@ -0,0 +1,289 @@
+package utilities.tracing;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.json.Json;
+import utilities.config.PropertyFileReader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Span-based tracer for scenarios, steps, helper actions and WebDriver commands.
+ * <p>
+ * Spans nest per thread: a span started while another is open on the same thread becomes its child. Finished spans
+ * are streamed to {@code traceDirectory} (default {@code target/traces}) in chunks of {@code traceFlushSpans}
+ * (default 1000), so memory stays bounded however long the run: {@code trace-events.json} holds Chrome trace-event
+ * JSON (open in chrome://tracing or Perfetto), completed by {@link #export()} at the end of the run, and
+ * {@code otlp-trace.jsonl} one OTLP-JSON export request per chunk. Disable with {@code tracing=false}.
+ */
+public final class Tracer {
+    private static final Logger logger = LogManager.getLogger(Tracer.class);
+    private static final String CHROME_TRACE = "trace-events.json";
+    private static final String OTLP_TRACE = "otlp-trace.jsonl";
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final boolean enabled = config.getBooleanPropertyOrDefault("tracing", false);
+    private static final long epochOffsetNanos = System.currentTimeMillis() * 1_000_000L - System.nanoTime();
+    private static final ThreadLocal<Deque<Span>> openSpans = ThreadLocal.withInitial(ArrayDeque::new);
+    private static final ThreadLocal<String> sessionIds = new ThreadLocal<>();
+    private static final ThreadLocal<String> networkProfiles = new ThreadLocal<>();
+    private static final Queue<Span> finishedSpans = new ConcurrentLinkedQueue<>();
+    private static final int flushSpans = Math.max(1, config.getIntPropertyOrDefault("traceFlushSpans", 1000));
+    private static final AtomicInteger pendingSpans = new AtomicInteger();
+    private static final Object fileLock = new Object();
+    // Guarded by fileLock: whether the current trace files have been started, and what they already hold
+    private static boolean filesStarted;
+    private static boolean firstEvent;
+    private static long writtenSpans;
+    private static final Set<Long> namedThreads = new HashSet<>();
+
+    private Tracer() {
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts a span as a child of the span currently open on this thread, or as the root of a new trace.
+     *
+     * @param name     the span name, e.g. "GeneralHelper.click"
+     * @param category the span category: scenario, step, helper or command
+     * @return the started span, or a shared no-op span when tracing is disabled
+     */
+    public static Span start(String name, String category) {
+        if (!enabled) {
+            return Span.NOOP;
+        }
+        Deque<Span> stack = openSpans.get();
+        Span parent = stack.peek();
+        String traceId = parent != null ? parent.traceId : randomHex(32);
+        Span span = new Span(traceId, randomHex(16), parent != null ? parent.spanId : null, name, category, sessionIds.get(),
+                networkProfiles.get());
+        stack.push(span);
+        return span;
+    }
+
+    /**
+     * Records the driver session id attached to spans started on this thread.
+     *
+     * @param sessionId the WebDriver session id, or null to clear it
+     */
+    public static void setSessionId(String sessionId) {
+        if (sessionId == null) {
+            sessionIds.remove();
+        } else {
+            sessionIds.set(sessionId);
+        }
+    }
+
+    /**
+     * Records the network profile attached to spans started on this thread.
+     *
+     * @param networkProfile the name of the emulated network profile, or null to clear it
+     */
+    public static void setNetworkProfile(String networkProfile) {
+        if (networkProfile == null) {
+            networkProfiles.remove();
+        } else {
+            networkProfiles.set(networkProfile);
+        }
+    }
+
+    static void end(Span span) {
+        span.closed = true;
+        span.endNanos = System.nanoTime();
+        Deque<Span> stack = openSpans.get();
+        if (stack.contains(span)) {
+            // Close any children left open (e.g. by an exception) together with their parent
+            Span top;
+            do {
+                top = stack.pop();
+                if (top != span) {
+                    top.closed = true;
+                    top.endNanos = span.endNanos;
+                    finish(top);
+                }
+            } while (top != span);
+        }
+        finish(span);
+    }
+
+    private static void finish(Span span) {
+        finishedSpans.add(span);
+        if (pendingSpans.incrementAndGet() >= flushSpans) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the spans not yet streamed and completes the Chrome trace-event file. Spans finished afterwards start a
+     * new pair of trace files.
+     */
+    public static void export() {
+        if (!enabled) {
+            return;
+        }
+        Path directory = directory();
+        synchronized (fileLock) {
+            flush();
+            if (!filesStarted) {
+                return;
+            }
+            try {
+                Files.write(directory.resolve(CHROME_TRACE), "],\"displayTimeUnit\":\"ms\"}".getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.APPEND);
+                logger.info("Exported {} trace span(s) to {}", writtenSpans, directory.toAbsolutePath());
+            } catch (IOException e) {
+                logger.error("Failed to complete the trace in {}: {}", directory, e.getMessage(), e);
+            }
+            filesStarted = false;
+        }
+    }
+
+    /**
+     * Appends the finished spans to the trace files and drops them from memory.
+     */
+    private static void flush() {
+        synchronized (fileLock) {
+            List<Span> spans = new ArrayList<>();
+            Span span;
+            while ((span = finishedSpans.poll()) != null) {
+                spans.add(span);
+            }
+            pendingSpans.addAndGet(-spans.size());
+            if (spans.isEmpty()) {
+                return;
+            }
+            Path directory = directory();
+            try {
+                Json json = new Json();
+                if (!filesStarted) {
+                    Files.createDirectories(directory);
+                    Files.write(directory.resolve(CHROME_TRACE), "{\"traceEvents\":[".getBytes(StandardCharsets.UTF_8));
+                    Files.write(directory.resolve(OTLP_TRACE), new byte[0]);
+                    filesStarted = true;
+                    firstEvent = true;
+                    writtenSpans = 0;
+                    namedThreads.clear();
+                }
+                StringBuilder events = new StringBuilder();
+                for (Map<String, Object> event : toChromeEvents(spans)) {
+                    events.append(firstEvent ? "\n" : ",\n").append(json.toJson(event));
+                    firstEvent = false;
+                }
+                Files.write(directory.resolve(CHROME_TRACE), events.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+                // OTLP JSON Lines: one export request per chunk, as the OpenTelemetry file exporter writes them
+                String otlp = json.toJson(toOtlp(spans)).replace("\n", "").replace("\r", "") + "\n";
+                Files.write(directory.resolve(OTLP_TRACE), otlp.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+                writtenSpans += spans.size();
+            } catch (IOException e) {
+                logger.error("Failed to write {} trace span(s) to {}: {}", spans.size(), directory, e.getMessage(), e);
+            }
+        }
+    }
+
+    private static Path directory() {
+        return Paths.get(config.getPropertyOrDefault("traceDirectory", "target/traces"));
+    }
+
+    // Called with fileLock held; thread names are emitted once per trace file
+    private static List<Map<String, Object>> toChromeEvents(List<Span> spans) {
+        List<Map<String, Object>> events = new ArrayList<>();
+        for (Span span : spans) {
+            if (namedThreads.add(span.threadId)) {
+                Map<String, Object> metadata = new LinkedHashMap<>();
+                metadata.put("name", "thread_name");
+                metadata.put("ph", "M");
+                metadata.put("pid", ProcessHandle.current().pid());
+                metadata.put("tid", span.threadId);
+                metadata.put("args", Map.of("name", span.threadName));
+                events.add(metadata);
+            }
+            Map<String, Object> args = new LinkedHashMap<>(span.attributes);
+            if (span.sessionId != null) {
+                args.put("session.id", span.sessionId);
+            }
+            if (span.networkProfile != null) {
+                args.put("network.profile", span.networkProfile);
+            }
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("name", span.name);
+            event.put("cat", span.category);
+            event.put("ph", "X");
+            event.put("ts", (span.startNanos + epochOffsetNanos) / 1_000.0);
+            event.put("dur", (span.endNanos - span.startNanos) / 1_000.0);
+            event.put("pid", ProcessHandle.current().pid());
+            event.put("tid", span.threadId);
+            event.put("args", args);
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static Map<String, Object> toOtlp(List<Span> spans) {
+        List<Map<String, Object>> otlpSpans = new ArrayList<>();
+        for (Span span : spans) {
+            List<Map<String, Object>> attributes = new ArrayList<>();
+            attributes.add(otlpAttribute("span.category", span.category));
+            attributes.add(otlpAttribute("thread.id", String.valueOf(span.threadId)));
+            attributes.add(otlpAttribute("thread.name", span.threadName));
+            if (span.sessionId != null) {
+                attributes.add(otlpAttribute("session.id", span.sessionId));
+            }
+            if (span.networkProfile != null) {
+                attributes.add(otlpAttribute("network.profile", span.networkProfile));
+            }
+            span.attributes.forEach((key, value) -> attributes.add(otlpAttribute(key, value)));
+
+            Map<String, Object> otlpSpan = new LinkedHashMap<>();
+            otlpSpan.put("traceId", span.traceId);
+            otlpSpan.put("spanId", span.spanId);
+            if (span.parentSpanId != null) {
+                otlpSpan.put("parentSpanId", span.parentSpanId);
+            }
+            otlpSpan.put("name", span.name);
+            otlpSpan.put("kind", 1);
+            otlpSpan.put("startTimeUnixNano", String.valueOf(span.startNanos + epochOffsetNanos));
+            otlpSpan.put("endTimeUnixNano", String.valueOf(span.endNanos + epochOffsetNanos));
+            otlpSpan.put("attributes", attributes);
+            otlpSpans.add(otlpSpan);
+        }
+        Map<String, Object> scopeSpans = new LinkedHashMap<>();
+        scopeSpans.put("scope", Map.of("name", Tracer.class.getName()));
+        scopeSpans.put("spans", otlpSpans);
+        Map<String, Object> resourceSpans = new LinkedHashMap<>();
+        resourceSpans.put("resource", Map.of("attributes", List.of(otlpAttribute("service.name", "selenium-bdd-setup"))));
+        resourceSpans.put("scopeSpans", List.of(scopeSpans));
+        return Map.of("resourceSpans", List.of(resourceSpans));
+    }
+
+    private static Map<String, Object> otlpAttribute(String key, String value) {
+        return Map.of("key", key, "value", Map.of("stringValue", value));
+    }
+
+    private static String randomHex(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder hex = new StringBuilder(length);
+        while (hex.length() < length) {
+            hex.append(String.format("%016x", random.nextLong()));
+        }
+        return hex.substring(0, length);
+    }
+}
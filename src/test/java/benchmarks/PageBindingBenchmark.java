@@ -0,0 +1,125 @@
+package benchmarks;
+
+import fixtures.FixtureServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import pageobjects.login.LoginPO;
+import pageobjects.login.LoginPOElements;
+import utilities.config.PropertyFileReader;
+import utilities.drivermanager.CommandInstrumentation;
+import utilities.drivermanager.GetDriverManager;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares the generated element bindings of {@code @GeneratedPage} with Selenium's reflective PageFactory on the
+ * fixture server's login page. Both bind the same {@link LoginPO} instance: once the generated
+ * {@code LoginPOElements.bind}, once {@code PageFactory.initElements}. Reports the cost of binding a page and of the
+ * first use of every element (locating it and reading its state), in time and WebDriver commands.
+ * <p>
+ * Not part of the regular run (surefire only picks up *Test classes); run it with
+ * {@code mvn test -Dtest=PageBindingBenchmark -Dbrowser=chrome}.
+ */
+public class PageBindingBenchmark {
+    private static final Logger logger = LogManager.getLogger(PageBindingBenchmark.class);
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final int BIND_WARMUP = 2_000;
+    private static final int BIND_ITERATIONS = 20_000;
+    private static final int USE_WARMUP = 2;
+    private static final int USE_ITERATIONS = 10;
+
+    private WebDriver driver;
+    private LoginPO page;
+    private List<Field> elementFields;
+
+    @BeforeClass
+    public void startSession() {
+        System.setProperty("fixtureServer", "true");
+        FixtureServer.startIfEnabled();
+        driver = GetDriverManager.getDriver(config.getBrowser());
+        driver.get(config.getHomePageURL());
+        page = new LoginPO(driver);
+        elementFields = new ArrayList<>();
+        for (Field field : LoginPO.class.getDeclaredFields()) {
+            if (field.isAnnotationPresent(FindBy.class)) {
+                field.setAccessible(true);
+                elementFields.add(field);
+            }
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopSession() {
+        GetDriverManager.quitDriver();
+        FixtureServer.stop();
+    }
+
+    @Test
+    public void generatedVersusPageFactory() throws IllegalAccessException {
+        StringBuilder report = new StringBuilder(String.format("%nPage binding benchmark (%s, %d element(s)): bind cost over %d run(s), "
+                        + "first use of every element over %d run(s)%n%-12s %12s %14s %14s%n", config.getBrowser(), elementFields.size(),
+                BIND_ITERATIONS, USE_ITERATIONS, "binding", "bind us", "first use ms", "commands"));
+        List<String> bindings = List.of("generated", "PageFactory");
+        Map<String, Double> bindMicros = new LinkedHashMap<>();
+        for (String binding : bindings) {
+            for (int i = 0; i < BIND_WARMUP; i++) {
+                bind(binding);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < BIND_ITERATIONS; i++) {
+                bind(binding);
+            }
+            bindMicros.put(binding, (System.nanoTime() - start) / 1_000.0 / BIND_ITERATIONS);
+        }
+
+        // Alternate the bindings within each run, so neither profits from the browser warming up
+        Map<String, Double> useMillis = new LinkedHashMap<>();
+        Map<String, Long> commands = new LinkedHashMap<>();
+        for (int i = 0; i < USE_WARMUP + USE_ITERATIONS; i++) {
+            for (String binding : bindings) {
+                bind(binding);
+                CommandInstrumentation instrumentation = GetDriverManager.getInstrumentation();
+                long commandsBefore = instrumentation == null ? 0 : instrumentation.getScenarioCommands();
+                long useStart = System.nanoTime();
+                for (Field field : elementFields) {
+                    try {
+                        ((WebElement) field.get(page)).isEnabled();
+                    } catch (NoSuchElementException e) {
+                        // The error banner is absent on a clean login page; both bindings pay the same lookup
+                    }
+                }
+                if (i >= USE_WARMUP) {
+                    useMillis.merge(binding, (System.nanoTime() - useStart) / 1_000_000.0, Double::sum);
+                    commands.merge(binding, instrumentation == null ? 0 : instrumentation.getScenarioCommands() - commandsBefore, Long::sum);
+                }
+            }
+        }
+        for (String binding : bindings) {
+            report.append(String.format("%-12s %12.2f %14.1f %14.1f%n", binding, bindMicros.get(binding),
+                    useMillis.get(binding) / USE_ITERATIONS, (double) commands.get(binding) / USE_ITERATIONS));
+        }
+        // Leave the page with its generated bindings for anything running after the benchmark
+        LoginPOElements.bind(page, driver);
+        logger.info(report);
+    }
+
+    private void bind(String binding) {
+        if ("generated".equals(binding)) {
+            LoginPOElements.bind(page, driver);
+        } else {
+            PageFactory.initElements(driver, page);
+        }
+    }
+}
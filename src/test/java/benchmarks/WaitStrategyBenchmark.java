@@ -0,0 +1,104 @@
+package benchmarks;
+
+import fixtures.FixtureServer;
+import helpers.HelperContext;
+import helpers.WaitHelper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utilities.config.PropertyFileReader;
+import utilities.drivermanager.CommandInstrumentation;
+import utilities.drivermanager.GetDriverManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compares the observer and polling wait strategies on the fixture server's login page: a hidden element is shown
+ * after a fixed delay and WaitHelper waits for it, with each strategy in turn on the same session. Reports, per delay,
+ * how long after the element appeared each strategy noticed it and how many WebDriver commands the wait took.
+ * <p>
+ * Not part of the regular run (surefire only picks up *Test classes); run it with
+ * {@code mvn test -Dtest=WaitStrategyBenchmark -Dbrowser=chrome}. HtmlUnit has no observer support, so there both
+ * rows measure polling.
+ */
+public class WaitStrategyBenchmark {
+    private static final Logger logger = LogManager.getLogger(WaitStrategyBenchmark.class);
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final int[] DELAYS_MS = {0, 100, 300, 800};
+    private static final int WARMUP = 2;
+    private static final int ITERATIONS = 10;
+    // Adds a hidden element now and shows it after the delay, so both strategies wait on the same existing element
+    private static final String SHOW_LATER_SCRIPT =
+            "var old = document.getElementById('bench-late'); if (old) old.remove();"
+                    + "var d = document.createElement('div'); d.id = 'bench-late'; d.textContent = 'ready'; d.style.display = 'none';"
+                    + "document.body.appendChild(d);"
+                    + "setTimeout(function() { d.style.display = 'block'; }, arguments[0]);"
+                    + "return d;";
+
+    private String previousStrategy;
+    private WebDriver driver;
+
+    @BeforeClass
+    public void startSession() {
+        System.setProperty("fixtureServer", "true");
+        FixtureServer.startIfEnabled();
+        previousStrategy = System.getProperty("waitStrategy");
+        driver = GetDriverManager.getDriver(config.getBrowser());
+        // Same timeouts as Hooks, so the polling strategy behaves as it does in scenarios
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(config.getImplicitWait()));
+        driver.get(config.getHomePageURL());
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopSession() {
+        GetDriverManager.quitDriver();
+        FixtureServer.stop();
+        if (previousStrategy == null) {
+            System.clearProperty("waitStrategy");
+        } else {
+            System.setProperty("waitStrategy", previousStrategy);
+        }
+    }
+
+    @Test
+    public void observerVersusPolling() {
+        if (!HelperContext.of(driver).scriptedStateChecks()) {
+            logger.warn("{} cannot run the DOM observer; the observer rows fall back to polling. Use a real browser.", config.getBrowser());
+        }
+        StringBuilder report = new StringBuilder(String.format("%nWait strategy benchmark (%s, %d run(s) per cell): detection lag after the element appeared, "
+                + "WebDriver commands per wait%n%-10s %-9s %10s %10s %10s%n", config.getBrowser(), ITERATIONS, "delay", "strategy", "median ms", "p90 ms", "commands"));
+        for (int delay : DELAYS_MS) {
+            for (String strategy : List.of("polling", "observer")) {
+                System.setProperty("waitStrategy", strategy);
+                WaitHelper waits = new WaitHelper(driver, 10);
+                List<Double> lags = new ArrayList<>();
+                long commands = 0;
+                for (int i = 0; i < WARMUP + ITERATIONS; i++) {
+                    CommandInstrumentation instrumentation = GetDriverManager.getInstrumentation();
+                    long commandsBefore = instrumentation == null ? 0 : instrumentation.getScenarioCommands();
+                    WebElement element = (WebElement) ((JavascriptExecutor) driver).executeScript(SHOW_LATER_SCRIPT, delay);
+                    long start = System.nanoTime();
+                    waits.waitForVisibilityOfElement(element);
+                    double lag = Math.max(0, (System.nanoTime() - start) / 1_000_000.0 - delay);
+                    if (i >= WARMUP) {
+                        lags.add(lag);
+                        // Minus the script call that schedules the element
+                        commands += instrumentation == null ? 0 : instrumentation.getScenarioCommands() - commandsBefore - 1;
+                    }
+                }
+                Collections.sort(lags);
+                report.append(String.format("%-10s %-9s %10.1f %10.1f %10.1f%n", delay + " ms", strategy,
+                        lags.get(lags.size() / 2), lags.get((int) Math.ceil(lags.size() * 0.9) - 1), (double) commands / ITERATIONS));
+            }
+        }
+        logger.info(report);
+    }
+}
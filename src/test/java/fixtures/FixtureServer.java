@@ -0,0 +1,252 @@
+package fixtures;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import utilities.config.PropertyFileReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Embedded HTTP server serving snapshots of the Swag Labs login and inventory pages from
+ * {@code src/test/resources/fixtures/saucedemo}, so the suite and its timing measurements run without the internet.
+ * <p>
+ * The login form posts to {@code /v1/login}, which validates the credentials the same way the real site does and
+ * redirects to the inventory page. Every route can be slowed down with {@code fixtureLatencyMs},
+ * {@code fixtureJitterMs} and {@code fixtureBandwidthKbps}, or per route with
+ * {@code fixtureRoute.<path>.latencyMs}, {@code .jitterMs} and {@code .bandwidthKbps}.
+ */
+public final class FixtureServer {
+    private static final Logger logger = LogManager.getLogger(FixtureServer.class);
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final String RESOURCE_ROOT = "fixtures/saucedemo";
+    private static final String SESSION_COOKIE = "session-username";
+    private static final Set<String> VALID_USERS = Set.of("standard_user", "locked_out_user", "problem_user", "performance_glitch_user");
+    private static final String VALID_PASSWORD = "secret_sauce";
+
+    private static HttpServer server;
+    private static ExecutorService executor;
+
+    private FixtureServer() {
+    }
+
+    /**
+     * Starts the server when {@code fixtureServer=true} and points {@code homePageUrl} and {@code inventoryPageUrl}
+     * at it through system properties.
+     */
+    public static synchronized void startIfEnabled() {
+        if (server != null || !config.getBooleanPropertyOrDefault("fixtureServer", false)) {
+            return;
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), config.getIntPropertyOrDefault("fixtureServerPort", 0)), 0);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start fixture server: " + e.getMessage(), e);
+        }
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", FixtureServer::handle);
+        server.start();
+
+        String baseUrl = "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v1/";
+        System.setProperty("homePageUrl", baseUrl);
+        System.setProperty("inventoryPageUrl", baseUrl + "inventory.html");
+        logger.info("Fixture server started at {}", baseUrl);
+    }
+
+    /**
+     * Stops the server if it is running.
+     */
+    public static synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        logger.info("Fixture server stopped.");
+    }
+
+    private static void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String method = exchange.getRequestMethod();
+            if ("/".equals(path) || "/v1".equals(path)) {
+                redirect(exchange, path, "/v1/");
+            } else if ("/v1/".equals(path) || "/v1/index.html".equals(path)) {
+                respond(exchange, path, 200, "text/html; charset=utf-8", loginPage(null));
+            } else if ("/v1/login".equals(path) && "POST".equals(method)) {
+                handleLogin(exchange, path);
+            } else if ("/v1/logout".equals(path)) {
+                exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=; Path=/; Max-Age=0");
+                redirect(exchange, path, "/v1/");
+            } else if ("/v1/inventory.html".equals(path) && sessionUser(exchange) == null) {
+                respond(exchange, path, 200, "text/html; charset=utf-8",
+                        loginPage("Epic sadface: You can only access '/inventory.html' when you are logged in."));
+            } else {
+                byte[] body = readResource(path);
+                if (body == null) {
+                    respond(exchange, path, 404, "text/plain; charset=utf-8", "Not found".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    respond(exchange, path, 200, contentType(path), body);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.error("Fixture server failed to handle {}: {}", exchange.getRequestURI(), e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Validates the posted credentials with the same rules and messages as the real login page.
+     */
+    private static void handleLogin(HttpExchange exchange, String path) throws IOException {
+        Map<String, String> form = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String username = form.getOrDefault("user-name", "");
+        String password = form.getOrDefault("password", "");
+        String error = null;
+        if (username.isEmpty()) {
+            error = "Epic sadface: Username is required";
+        } else if (password.isEmpty()) {
+            error = "Epic sadface: Password is required";
+        } else if (!VALID_USERS.contains(username) || !VALID_PASSWORD.equals(password)) {
+            error = "Epic sadface: Username and password do not match any user in this service";
+        } else if ("locked_out_user".equals(username)) {
+            error = "Epic sadface: Sorry, this user has been locked out.";
+        }
+
+        if (error != null) {
+            respond(exchange, path, 200, "text/html; charset=utf-8", loginPage(error));
+            return;
+        }
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + username + "; Path=/");
+        redirect(exchange, path, "/v1/inventory.html");
+    }
+
+    private static byte[] loginPage(String error) {
+        String page = new String(readResource("/v1/index.html"), StandardCharsets.UTF_8);
+        if (error != null) {
+            page = page.replace("<!--ERROR-->", "<h3 data-test=\"error\"><button class=\"error-button\"></button>" + error + "</h3>");
+        }
+        return page.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String sessionUser(HttpExchange exchange) {
+        String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookies == null) {
+            return null;
+        }
+        for (String cookie : cookies.split(";")) {
+            String[] pair = cookie.trim().split("=", 2);
+            if (pair.length == 2 && SESSION_COOKIE.equals(pair[0]) && !pair[1].isEmpty()) {
+                return pair[1];
+            }
+        }
+        return null;
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            if (keyValue.length == 2) {
+                form.put(URLDecoder.decode(keyValue[0], StandardCharsets.UTF_8), URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void redirect(HttpExchange exchange, String path, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        respond(exchange, path, 302, "text/plain; charset=utf-8", new byte[0]);
+    }
+
+    /**
+     * Sends the response after the route's artificial latency, throttled to the route's bandwidth.
+     */
+    private static void respond(HttpExchange exchange, String path, int status, String contentType, byte[] body) throws IOException {
+        long latencyMs = routeSetting(path, "latencyMs", "fixtureLatencyMs");
+        long jitterMs = routeSetting(path, "jitterMs", "fixtureJitterMs");
+        long bandwidthKbps = routeSetting(path, "bandwidthKbps", "fixtureBandwidthKbps");
+        if (jitterMs > 0) {
+            latencyMs = Math.max(0, latencyMs + ThreadLocalRandom.current().nextLong(-jitterMs, jitterMs + 1));
+        }
+        sleep(latencyMs);
+
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length == 0) {
+            return;
+        }
+        try (OutputStream output = exchange.getResponseBody()) {
+            if (bandwidthKbps <= 0) {
+                output.write(body);
+                return;
+            }
+            // Write in 50 ms slices so the transfer rate matches the configured bandwidth
+            int chunkSize = (int) Math.max(1, bandwidthKbps * 1000 / 8 / 20);
+            for (int offset = 0; offset < body.length; offset += chunkSize) {
+                output.write(body, offset, Math.min(chunkSize, body.length - offset));
+                output.flush();
+                sleep(50);
+            }
+        }
+    }
+
+    private static long routeSetting(String path, String name, String globalKey) {
+        int global = config.getIntPropertyOrDefault(globalKey, 0);
+        return config.getIntPropertyOrDefault("fixtureRoute." + path + "." + name, global);
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static byte[] readResource(String path) {
+        if (path.contains("..")) {
+            return null;
+        }
+        String resource = RESOURCE_ROOT + (path.endsWith("/") ? path + "index.html" : path);
+        try (InputStream input = FixtureServer.class.getClassLoader().getResourceAsStream(resource)) {
+            return input == null ? null : input.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read fixture resource: " + resource, e);
+        }
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".html")) {
+            return "text/html; charset=utf-8";
+        } else if (path.endsWith(".css")) {
+            return "text/css; charset=utf-8";
+        } else if (path.endsWith(".js")) {
+            return "application/javascript; charset=utf-8";
+        } else if (path.endsWith(".svg")) {
+            return "image/svg+xml";
+        } else if (path.endsWith(".png")) {
+            return "image/png";
+        }
+        return "application/octet-stream";
+    }
+}
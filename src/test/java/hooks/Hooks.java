@@ -1,41 +1,99 @@
 package hooks;
 
+import helpers.AlertHelper;
+import helpers.FillStrategy;
+import helpers.HelperContext;
+import helpers.InteractionBatch;
+import helpers.Navigation;
 import io.cucumber.java.After;
+import io.cucumber.java.AfterAll;
+import io.cucumber.java.AfterStep;
 import io.cucumber.java.Before;
+import io.cucumber.java.BeforeStep;
+import io.cucumber.java.Scenario;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.openqa.selenium.WebDriver;
+import utilities.drivermanager.BrowserProcesses;
+import utilities.drivermanager.CommandInstrumentation;
+import utilities.drivermanager.DriverServices;
 import utilities.pageobjectmanager.PageObjectManager;
 import utilities.drivermanager.GetDriverManager;
+import utilities.drivermanager.NetworkProfile;
+import utilities.drivermanager.ProfileTemplates;
+import utilities.drivermanager.SessionWatchdog;
+import utilities.concurrency.ConcurrencyController;
 import utilities.config.PropertyFileReader;
+import utilities.data.AccountPool;
+import utilities.jfr.ScenarioEvent;
+import utilities.tracing.Span;
+import utilities.tracing.StartupProfiler;
+import utilities.tracing.Tracer;
 
 import java.time.Duration;
 
 public class Hooks {
 
     private static final Logger logger = LogManager.getLogger(Hooks.class); // Logger instance
-    private static final PropertyFileReader config = new PropertyFileReader();
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
+    private static final ThreadLocal<Scenario> currentScenario = new ThreadLocal<>();
     private PageObjectManager pageObjectManager;
+    private Span scenarioSpan;
+    private Span stepSpan;
+    private ScenarioEvent scenarioEvent;
+    private NetworkProfile networkProfile = NetworkProfile.NONE;
+    private boolean slotAcquired;
+    private long stepStartNanos;
+    private int stepIndex;
+
+    static {
+        // Cucumber loads glue classes once it has discovered them
+        StartupProfiler.glueLoaded();
+    }
 
     @Before
-    public void setUp() {
+    public void setUp(Scenario scenario) {
+        // Wait for a slot before anything that holds resources; the controller decides how many scenarios run at once
+        ConcurrencyController.acquire();
+        slotAcquired = true;
+        currentScenario.set(scenario);
+        SessionWatchdog.startScenario();
+        scenarioEvent = new ScenarioEvent();
+        scenarioEvent.begin();
+        scenarioSpan = Tracer.start("Scenario: " + scenario.getName(), "scenario")
+                .attribute("scenario.id", scenario.getId())
+                .attribute("scenario.uri", scenario.getUri());
         try {
             logger.info("Initializing browser setup...");
             String homePageUrl = config.getHomePageURL();
             int implicitWait = config.getImplicitWait();
             int pageLoadTimeout = config.getPageLoadTimeout();
 
-            WebDriver driver = GetDriverManager.getDriver(config.getBrowser());
-            logger.info("Browser initialized: {}", config.getBrowser());
+            // Scenarios tagged for the in-JVM driver skip the real browser
+            String browser = scenario.getSourceTagNames().contains(config.getPropertyOrDefault("htmlunitTag", "@htmlunit"))
+                    ? "htmlunit" : config.getBrowser();
+            WebDriver driver = GetDriverManager.getDriver(browser);
+            logger.info("Browser initialized: {}", browser);
+            networkProfile = GetDriverManager.getNetworkProfile();
+            scenarioSpan.attribute("network.profile", networkProfile.getName());
+            scenario.log("Network profile: " + networkProfile);
+            CommandInstrumentation instrumentation = GetDriverManager.getInstrumentation();
+            if (instrumentation != null) {
+                instrumentation.startScenario(scenario.getName());
+            }
 
             // Set timeouts
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(pageLoadTimeout));
+            try (StartupProfiler.Phase ignored = StartupProfiler.phase("timeouts")) {
+                driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
+                driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(pageLoadTimeout));
+            }
             logger.info("Timeouts set: Implicit - {} seconds, Page Load - {} seconds", implicitWait, pageLoadTimeout);
 
-            // Maximize window and navigate to the home page
-            driver.manage().window().maximize();
-            driver.get(homePageUrl);
+            // Navigate to the home page (GetDriverManager already maximized the window); skipped if a reused
+            // session already shows it untouched
+            try (StartupProfiler.Phase ignored = StartupProfiler.phase("first-navigation")) {
+                HelperContext.of(driver).navigation().open(homePageUrl);
+            }
             logger.info("Navigated to homepage: {}", homePageUrl);
 
         } catch (Exception e) {
@@ -44,14 +102,90 @@ public class Hooks {
         }
     }
 
+    /**
+     * Returns the scenario running on the current thread, so steps can write to the report.
+     *
+     * @return the current Scenario, or null outside a scenario
+     */
+    public static Scenario currentScenario() {
+        return currentScenario.get();
+    }
+
+    @BeforeStep
+    public void beforeStep() {
+        StartupProfiler.firstStep();
+        // Cucumber does not pass the step to step hooks, so spans are named by their position in the scenario
+        stepSpan = Tracer.start("Step " + ++stepIndex, "step").attribute("step.index", stepIndex);
+        stepStartNanos = System.nanoTime();
+        CommandInstrumentation instrumentation = GetDriverManager.getInstrumentation();
+        if (instrumentation != null) {
+            instrumentation.startStep();
+        }
+    }
+
+    @AfterStep
+    public void afterStep() {
+        Scenario scenario = currentScenario.get();
+        // The same step of the same scenario (example row) is what its duration is compared with
+        ConcurrencyController.recordStep(scenario.getUri() + ":" + scenario.getLine() + "#" + stepIndex, System.nanoTime() - stepStartNanos);
+        CommandInstrumentation instrumentation = GetDriverManager.getInstrumentation();
+        if (instrumentation != null) {
+            try {
+                instrumentation.endStep();
+            } finally {
+                stepSpan.close();
+            }
+        } else {
+            stepSpan.close();
+        }
+    }
+
     @After
-    public void tearDown() {
+    public void tearDown(Scenario scenario) {
         try {
+            CommandInstrumentation instrumentation = GetDriverManager.getInstrumentation();
+            if (instrumentation != null) {
+                instrumentation.endScenario();
+            }
             logger.info("Tearing down the browser...");
             GetDriverManager.quitDriver();
             logger.info("Browser closed successfully.");
         } catch (Exception e) {
             logger.error("Error during teardown: {}", e.getMessage(), e);
+        } finally {
+            SessionWatchdog.endScenario();
+            // Returns the account a step leased, if any
+            AccountPool.release();
+            if (slotAcquired) {
+                ConcurrencyController.release();
+            }
+            currentScenario.remove();
+            scenarioSpan.close();
+            scenarioEvent.end();
+            if (scenarioEvent.shouldCommit()) {
+                scenarioEvent.scenario = scenario.getName();
+                scenarioEvent.status = String.valueOf(scenario.getStatus());
+                scenarioEvent.networkProfile = networkProfile.getName();
+                scenarioEvent.commit();
+            }
         }
     }
+
+    @AfterAll
+    public static void reportRunStatistics() {
+        PageObjectManager.logStatistics();
+        HelperContext.logStatistics();
+        InteractionBatch.logStatistics();
+        FillStrategy.logStatistics();
+        Navigation.logStatistics();
+        AlertHelper.logStatistics();
+        SessionWatchdog.logStatistics();
+        DriverServices.logStatistics();
+        ProfileTemplates.logStatistics();
+        AccountPool.logStatistics();
+        ConcurrencyController.logStatistics();
+        BrowserProcesses.logStatistics(GetDriverManager.getExecutionMode(config.getBrowser()));
+        Tracer.export();
+        StartupProfiler.report();
+    }
 }
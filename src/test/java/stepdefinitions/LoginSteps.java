@@ -1,6 +1,8 @@
 package stepdefinitions;
 
+import helpers.HelperContext;
 import hooks.Hooks;
+import io.cucumber.java.Scenario;
 import io.cucumber.java.en.Given;
 import io.cucumber.java.en.Then;
 import io.cucumber.java.en.When;
@@ -8,12 +10,16 @@ import org.openqa.selenium.WebDriver;
 import utilities.pageobjectmanager.PageObjectManager;
 import pageobjects.login.LoginPO;
 import utilities.config.PropertyFileReader;
+import utilities.data.AccountPool;
+import utilities.data.DataDrivenRunner;
 import utilities.drivermanager.GetDriverManager;
 
+import java.nio.file.Paths;
+
 public class LoginSteps {
     private WebDriver driver;
     private PageObjectManager pageObjectManager;
-    private static final PropertyFileReader config = new PropertyFileReader();
+    private static final PropertyFileReader config = PropertyFileReader.getInstance();
     private LoginPO loginPage;
 
     public LoginSteps() {
@@ -29,13 +35,56 @@ public class LoginSteps {
 
     @When("User logs in using username {string} and password {string}")
     public void userLogsInUsingUsernameAndPassword(String username, String password) {
-        loginPage.enterUsername(username);
-        loginPage.enterPassword(password);
-        loginPage.clickLoginButton();
+        // Pooled accounts are leased even with inline credentials, so no parallel scenario uses them meanwhile
+        AccountPool.lease(username, password);
+        loginPage.login(username, password);
+    }
+
+    @When("User logs in with a test account")
+    public void userLogsInWithATestAccount() {
+        AccountPool.Account account = AccountPool.current();
+        loginPage.login(account.getUsername(), account.getPassword());
     }
 
     @Then("User redirected to the Product page")
     public void userRedirectedToTheProductpage() {
         loginPage.verifyLoginSuccessful();
     }
+
+    @Then("every account in {string} gets the expected login result")
+    public void everyAccountInGetsTheExpectedLoginResult(String dataFile) {
+        // Each worker thread logs in on its own driver, using the browser this scenario was routed to
+        String browser = GetDriverManager.getBrowser() != null ? GetDriverManager.getBrowser() : config.getBrowser();
+        DataDrivenRunner.Summary summary = DataDrivenRunner.run(Paths.get(dataFile), config.getIntPropertyOrDefault("dataWorkers", 2), row -> {
+            WebDriver workerDriver = GetDriverManager.getDriver(browser);
+            workerDriver.manage().deleteAllCookies();
+            HelperContext.of(workerDriver).navigation().open(config.getHomePageURL());
+            LoginPO workerLoginPage = new PageObjectManager(workerDriver).get(LoginPO.class);
+            AccountPool.lease(row.get("username"), row.get("password"));
+            try {
+                workerLoginPage.login(row.get("username"), row.get("password"));
+                String expected = row.getOrDefault("expected", "success");
+                boolean loggedIn = workerLoginPage.waitForLoginOutcome();
+                if ("success".equalsIgnoreCase(expected)) {
+                    workerLoginPage.verifyLoginSuccessful();
+                } else if (loggedIn) {
+                    throw new AssertionError("expected error '" + expected + "' but login succeeded");
+                } else {
+                    workerLoginPage.verifyLoginError(expected);
+                }
+            } finally {
+                AccountPool.release();
+            }
+        }, GetDriverManager::quitDriver);
+
+        Scenario scenario = Hooks.currentScenario();
+        if (scenario != null) {
+            scenario.log("Data file " + dataFile + ": " + summary);
+            summary.getFailures().forEach(scenario::log);
+        }
+        if (summary.getFailed() > 0) {
+            throw new AssertionError(summary.getFailed() + " of " + (summary.getPassed() + summary.getFailed())
+                    + " row(s) failed:\n" + String.join("\n", summary.getFailures()));
+        }
+    }
 }
@@ -0,0 +1,17 @@
+package testrunners;
+
+import org.testng.annotations.DataProvider;
+
+/**
+ * Runs the same scenarios as {@link TestRunner} on TestNG's data-provider thread pool (size: {@code scenarioThreads} in
+ * pom.xml). The pool is only the upper bound; ConcurrencyController decides how many scenarios actually run at once.
+ * Selected by the {@code parallel} profile: {@code mvn test -Pparallel}.
+ */
+public class ParallelTestRunner extends TestRunner {
+
+    @Override
+    @DataProvider(parallel = true)
+    public Object[][] scenarios() {
+        return super.scenarios();
+    }
+}
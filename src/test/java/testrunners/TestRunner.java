@@ -1,7 +1,10 @@
 package testrunners;
 
+import fixtures.FixtureServer;
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
 
 @CucumberOptions(
         features = "src/test/resources/features",
@@ -13,4 +16,14 @@ import io.cucumber.testng.CucumberOptions;
 //        tags = "@regression" // Tag for filtering scenarios
 )
 public class TestRunner extends AbstractTestNGCucumberTests {
+
+    @BeforeClass(alwaysRun = true)
+    public void startFixtureServer() {
+        FixtureServer.startIfEnabled();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopFixtureServer() {
+        FixtureServer.stop();
+    }
 }
@@ -3,4 +3,13 @@ Feature: Login function
   Scenario: User logs in successfully
     Given User is on the Login page
     When User logs in using username "standard_user" and password "secret_sauce"
-    Then User redirected to the Product page
\ No newline at end of file
+    Then User redirected to the Product page
+
+  Scenario: User logs in with an exclusive test account
+    Given User is on the Login page
+    When User logs in with a test account
+    Then User redirected to the Product page
+
+  Scenario: Accounts from a data file get the expected login result
+    Given User is on the Login page
+    Then every account in "src/test/resources/testdata/logins.csv" gets the expected login result